@@ -0,0 +1,78 @@
+package com.yuvraj.parking_lot.benchmark;
+
+import com.yuvraj.parking_lot.allocation.AllocationContext;
+import com.yuvraj.parking_lot.allocation.FirstFitStrategy;
+import com.yuvraj.parking_lot.allocation.FloorBalancedStrategy;
+import com.yuvraj.parking_lot.allocation.NearestToEntranceStrategy;
+import com.yuvraj.parking_lot.allocation.ReservedEvPriorityStrategy;
+import com.yuvraj.parking_lot.allocation.SpotAllocationStrategy;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of one allocation decision per {@link SpotAllocationStrategy}:
+ * a candidate is polled from the {@link FreeSpotAllocator} and immediately
+ * released, so the pool stays at {@code lotSize} spots spread over
+ * {@code floors} floors. No repository is touched on this path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AllocationStrategyBenchmark {
+
+    // Electric spots and vehicles, so the EV reserve check runs but never refuses
+    private static final AllocationContext CONTEXT =
+            new AllocationContext(ParkingSpotType.ELECTRIC, VehicleType.ELECTRIC, null);
+
+    @Param({"FIRST_FIT", "FLOOR_BALANCED", "NEAREST_TO_ENTRANCE", "RESERVED_EV_PRIORITY"})
+    public AllocationStrategy strategy;
+
+    @Param({"100000"})
+    public int lotSize;
+
+    @Param({"10"})
+    public int floors;
+
+    private FreeSpotAllocator allocator;
+    private ParkingFloor[] floorsById;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryRepositories repositories = new InMemoryRepositories(lotSize, floors, CONTEXT.spotType(), strategy);
+        allocator = new FreeSpotAllocator(repositories.parkingSpotRepository(),
+                repositories.parkingFloorRepository(), repositories.parkingLotRepository(),
+                List.of(new FirstFitStrategy(), new FloorBalancedStrategy(), new NearestToEntranceStrategy(),
+                        new ReservedEvPriorityStrategy(2)),
+                AllocationStrategy.FIRST_FIT);
+        allocator.seed();
+
+        floorsById = new ParkingFloor[floors + 1];
+        for (long floorId = 1; floorId <= floors; floorId++) {
+            floorsById[(int) floorId] = repositories.parkingFloorRepository().findById(floorId).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Long allocateThenRelease() {
+        Long spotId = allocator.poll(1L, CONTEXT);
+        allocator.release(ParkingSpot.builder()
+                .id(spotId).type(CONTEXT.spotType()).floor(floorOf(spotId)).build());
+        return spotId;
+    }
+
+    private ParkingFloor floorOf(Long spotId) {
+        long perFloor = Math.max(1, (lotSize + floors - 1) / floors);
+        return floorsById[(int) ((spotId - 1) / perFloor + 1)];
+    }
+}
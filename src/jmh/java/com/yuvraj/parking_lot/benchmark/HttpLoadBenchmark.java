@@ -0,0 +1,152 @@
+package com.yuvraj.parking_lot.benchmark;
+
+import com.yuvraj.parking_lot.ParkingLotApplication;
+import com.yuvraj.parking_lot.occupancy.ActiveSessionIndex;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives park-then-exit over HTTP against the running application, comparing
+ * request handling on Tomcat's platform thread pool ({@code platform}) with
+ * virtual threads ({@code virtual}) at the same Hikari pool size.
+ * <p>
+ * Each JMH thread is one client, so the default 256 threads outnumber both the
+ * connection pool and, with {@code tomcatThreads} below that, the platform
+ * worker pool. The {@code virtual} runs need Java 21 ({@code -Pjdk21}). The
+ * database defaults to in-memory H2; point {@code datasourceUrl} at PostgreSQL
+ * for a comparison where connections are held across real network round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HttpLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    @Param({"10"})
+    public int hikariPoolSize;
+
+    @Param({"200"})
+    public int tomcatThreads;
+
+    @Param({"100000"})
+    public int lotSize;
+
+    @Param({"jdbc:h2:mem:http-benchmark;DB_CLOSE_DELAY=-1"})
+    public String datasourceUrl;
+
+    @Param({"sa"})
+    public String datasourceUsername;
+
+    @Param({""})
+    public String datasourcePassword;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = switch (threading) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown threading: " + threading);
+        };
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21, build and run with -Pjdk21");
+        }
+
+        // Arguments rather than default properties, which application.properties would override
+        context = new SpringApplicationBuilder(ParkingLotApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + tomcatThreads,
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=" + datasourceUrl,
+                        "--spring.datasource.username=" + datasourceUsername,
+                        "--spring.datasource.password=" + datasourcePassword,
+                        "--spring.datasource.hikari.maximum-pool-size=" + hikariPoolSize,
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.sql.init.mode=never",
+                        "--parking.history.partitioned=false",
+                        "--parking.occupancy.reconcile-interval=PT24H",
+                        "--parking.journal.enabled=false",
+                        "--parking.snapshot.enabled=false",
+                        "--logging.level.root=WARN");
+
+        ParkingServiceBenchmark.insertSpots(context.getBean(JdbcTemplate.class), lotSize);
+        context.getBean(FreeSpotAllocator.class).seed();
+        context.getBean(OccupancyCounters.class).reconcile();
+        context.getBean(ActiveSessionIndex.class).rebuild();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/vehicles";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+        private final String prefix = "HTTP-" + CLIENTS.incrementAndGet() + "-";
+        private long sequence;
+
+        String nextPlate() {
+            return prefix + sequence++;
+        }
+    }
+
+    /**
+     * Parks a vehicle and exits it again, keeping lot occupancy steady across
+     * iterations. Each operation is two requests.
+     */
+    @Benchmark
+    public int parkThenExit(Client client) throws IOException, InterruptedException {
+        String plate = client.nextPlate();
+        HttpRequest park = HttpRequest.newBuilder(URI.create(baseUrl + "/park"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"licensePlate\":\"" + plate + "\",\"vehicleType\":\"CAR\",\"spotType\":\"COMPACT\"}"))
+                .build();
+        expect(201, httpClient.send(park, HttpResponse.BodyHandlers.discarding()));
+
+        HttpRequest exit = HttpRequest.newBuilder(URI.create(baseUrl + "/exit/" + plate))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return expect(200, httpClient.send(exit, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private static int expect(int status, HttpResponse<?> response) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
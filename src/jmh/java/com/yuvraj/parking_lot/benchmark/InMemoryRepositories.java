@@ -0,0 +1,186 @@
+package com.yuvraj.parking_lot.benchmark;
+
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.Vehicle;
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
+import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSessionHistoryRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import com.yuvraj.parking_lot.repository.SpotReservationRepository;
+import com.yuvraj.parking_lot.repository.VehicleRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-ins for the repositories used by the parking hot path, so
+ * the service can be measured without JDBC, Hibernate or transactions.
+ * <p>
+ * Only the methods {@code ParkingServiceImpl} and the occupancy components call
+ * are implemented; anything else throws {@link UnsupportedOperationException}.
+ * There is no row locking, which is safe here because every claim goes through
+ * the allocator and each candidate ID is handed to a single thread.
+ */
+final class InMemoryRepositories {
+
+    private final ParkingLot lot;
+    private final Map<Long, ParkingFloor> floors = new HashMap<>();
+    private final ConcurrentSkipListMap<Long, ParkingSpot> spots = new ConcurrentSkipListMap<>();
+    private final Map<Long, Vehicle> vehiclesById = new ConcurrentHashMap<>();
+    private final Map<String, Vehicle> vehiclesByPlate = new ConcurrentHashMap<>();
+    private final AtomicLong vehicleIds = new AtomicLong();
+    private final AtomicLong historyRows = new AtomicLong();
+
+    InMemoryRepositories(int spotCount, ParkingSpotType type) {
+        this(spotCount, 1, type, null);
+    }
+
+    /**
+     * Spreads the spots over {@code floorCount} floors in contiguous ID ranges,
+     * floor 1 holding the lowest IDs.
+     */
+    InMemoryRepositories(int spotCount, int floorCount, ParkingSpotType type, AllocationStrategy strategy) {
+        lot = ParkingLot.builder().id(1L).name("Benchmark Lot").allocationStrategy(strategy).build();
+        for (long floorId = 1; floorId <= floorCount; floorId++) {
+            floors.put(floorId, ParkingFloor.builder().id(floorId).floorNumber((int) floorId).parkingLot(lot).build());
+        }
+        long perFloor = Math.max(1, (spotCount + floorCount - 1) / floorCount);
+        for (long id = 1; id <= spotCount; id++) {
+            ParkingFloor floor = floors.get((id - 1) / perFloor + 1);
+            spots.put(id, ParkingSpot.builder()
+                    .id(id).spotNumber("S-" + id).type(type).isOccupied(false).floor(floor).version(0L).build());
+        }
+    }
+
+    long historyRows() {
+        return historyRows.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    ParkingSpotRepository parkingSpotRepository() {
+        return proxy(ParkingSpotRepository.class, Map.of(
+                "findAvailableSpotLocations", args -> spots.values().stream()
+                        .filter(spot -> !spot.getIsOccupied())
+                        .map(spot -> new Object[]{spot.getId(), spot.getType(), spot.getFloor().getId(), lot.getId(),
+                                spot.getFloor().getFloorNumber()})
+                        .toList(),
+                "countAvailableSpotsByLotAndType", args -> {
+                    Map<ParkingSpotType, Long> counts = new EnumMap<>(ParkingSpotType.class);
+                    spots.values().stream()
+                            .filter(spot -> !spot.getIsOccupied())
+                            .forEach(spot -> counts.merge(spot.getType(), 1L, Long::sum));
+                    return counts.entrySet().stream()
+                            .map(entry -> new Object[]{lot.getId(), entry.getKey(), entry.getValue()})
+                            .toList();
+                },
+                "findByIdInAndIsOccupiedFalse", args -> {
+                    List<ParkingSpot> found = new ArrayList<>();
+                    for (Long id : (Collection<Long>) args[0]) {
+                        ParkingSpot spot = spots.get(id);
+                        if (spot != null && !spot.getIsOccupied()) {
+                            found.add(spot);
+                        }
+                    }
+                    return found;
+                },
+                "findByTypeAndIsOccupiedFalseOrderByIdAsc", args -> spots.values().stream()
+                        .filter(spot -> spot.getType() == args[0] && !spot.getIsOccupied())
+                        .limit(((Pageable) args[1]).getPageSize())
+                        .toList()));
+    }
+
+    ParkingFloorRepository parkingFloorRepository() {
+        return proxy(ParkingFloorRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(floors.get((Long) args[0]))));
+    }
+
+    ParkingLotRepository parkingLotRepository() {
+        return proxy(ParkingLotRepository.class, Map.of(
+                "findAllocationStrategies", args -> List.<Object[]>of(new Object[]{lot.getId(), lot.getAllocationStrategy()}),
+                "findById", args -> lot.getId().equals(args[0]) ? Optional.of(lot) : Optional.empty()));
+    }
+
+    @SuppressWarnings("unchecked")
+    VehicleRepository vehicleRepository() {
+        return proxy(VehicleRepository.class, Map.of(
+                "findActiveSessions", args -> vehiclesById.values().stream()
+                        .map(vehicle -> new Object[]{vehicle.getLicensePlate(), vehicle.getId(),
+                                vehicle.getParkingSpot() != null ? vehicle.getParkingSpot().getId() : null})
+                        .toList(),
+                "findById", args -> Optional.ofNullable(vehiclesById.get((Long) args[0])),
+                "findByLicensePlate", args -> Optional.ofNullable(vehiclesByPlate.get((String) args[0])),
+                "findByIdIn", args -> ((Collection<Long>) args[0]).stream()
+                        .map(vehiclesById::get).filter(Objects::nonNull).toList(),
+                "findByLicensePlateIn", args -> ((Collection<String>) args[0]).stream()
+                        .map(vehiclesByPlate::get).filter(Objects::nonNull).toList(),
+                "save", args -> saveVehicle((Vehicle) args[0]),
+                "saveAll", args -> {
+                    List<Vehicle> saved = new ArrayList<>();
+                    ((Iterable<Vehicle>) args[0]).forEach(vehicle -> saved.add(saveVehicle(vehicle)));
+                    return saved;
+                },
+                "delete", args -> {
+                    Vehicle vehicle = (Vehicle) args[0];
+                    vehiclesById.remove(vehicle.getId());
+                    vehiclesByPlate.remove(vehicle.getLicensePlate());
+                    return null;
+                },
+                "flush", args -> null));
+    }
+
+    ParkingSessionHistoryRepository parkingSessionHistoryRepository() {
+        // Completed sessions are only counted, keeping the heap flat over long runs
+        return proxy(ParkingSessionHistoryRepository.class, Map.of(
+                "save", args -> {
+                    historyRows.incrementAndGet();
+                    return args[0];
+                }));
+    }
+
+    SpotReservationRepository spotReservationRepository() {
+        return proxy(SpotReservationRepository.class, Map.of());
+    }
+
+    private Vehicle saveVehicle(Vehicle vehicle) {
+        if (vehicle.getId() == null) {
+            vehicle.setId(vehicleIds.incrementAndGet());
+        }
+        vehiclesById.put(vehicle.getId(), vehicle);
+        vehiclesByPlate.put(vehicle.getLicensePlate(), vehicle);
+        return vehicle;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> repositoryType, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> handler = methods.get(method.getName());
+                    if (handler != null) {
+                        return handler.apply(args);
+                    }
+                    return switch (method.getName()) {
+                        case "toString" -> "InMemory" + repositoryType.getSimpleName();
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(
+                                repositoryType.getSimpleName() + "." + method.getName());
+                    };
+                });
+    }
+}
@@ -0,0 +1,69 @@
+package com.yuvraj.parking_lot.benchmark;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.journal.JournalEvent;
+import com.yuvraj.parking_lot.journal.JournalEventType;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures one {@link OccupancyJournal} append, with the range written since the
+ * last call forced to disk every {@code syncEvery} appends to stand in for the
+ * scheduled group sync. Segments of {@code segmentRecords} records roll over
+ * during the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OccupancyJournalBenchmark {
+
+    @Param({"1000"})
+    public int syncEvery;
+
+    @Param({"1048576"})
+    public int segmentRecords;
+
+    private Path directory;
+    private OccupancyJournal journal;
+    private long appends;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        // Synced by the benchmark itself, never in the background
+        journal = new OccupancyJournal(directory, segmentRecords, true, Duration.ofDays(1));
+        journal.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public JournalEvent append() {
+        long sequence = appends++;
+        JournalEvent event = journal.append(JournalEventType.PARK, "BENCH-PLATE", sequence, sequence,
+                ParkingSpotType.COMPACT);
+        if (sequence % syncEvery == 0) {
+            journal.sync();
+        }
+        return event;
+    }
+}
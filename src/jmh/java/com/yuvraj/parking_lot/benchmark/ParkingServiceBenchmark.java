@@ -0,0 +1,191 @@
+package com.yuvraj.parking_lot.benchmark;
+
+import com.yuvraj.parking_lot.ParkingLotApplication;
+import com.yuvraj.parking_lot.allocation.FirstFitStrategy;
+import com.yuvraj.parking_lot.allocation.SpotTypeFallbacks;
+import com.yuvraj.parking_lot.dto.AvailabilityResponse;
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.dto.VehicleResponse;
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import com.yuvraj.parking_lot.metrics.ParkingMetrics;
+import com.yuvraj.parking_lot.occupancy.ActiveSessionIndex;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.reservation.ReservationExpiryWheel;
+import com.yuvraj.parking_lot.service.ParkingService;
+import com.yuvraj.parking_lot.service.impl.ParkingServiceImpl;
+import com.yuvraj.parking_lot.service.impl.ReservationServiceImpl;
+import com.yuvraj.parking_lot.service.impl.SpotClaimer;
+import com.yuvraj.parking_lot.tariff.TariffEngine;
+import com.yuvraj.parking_lot.tariff.TariffProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the park, exit and availability paths of {@link ParkingService}
+ * against two backends: the full Spring context on H2 ({@code h2}), and the
+ * service wired to {@link InMemoryRepositories} ({@code memory}) to isolate the
+ * service and occupancy code from JDBC and transaction overhead.
+ * <p>
+ * Throughput and sampled latency (p50/p90/p99/p99.9) are reported for every
+ * benchmark. Pass {@code -t <threads>} to vary the number of concurrent gates
+ * and {@code -prof gc} to report the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ParkingServiceBenchmark {
+
+    private static final ParkingSpotType SPOT_TYPE = ParkingSpotType.COMPACT;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"memory", "h2"})
+    public String backend;
+
+    @Param({"1000", "100000", "1000000"})
+    public int lotSize;
+
+    private ParkingService parkingService;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (backend) {
+            case "memory" -> parkingService = inMemoryService();
+            case "h2" -> parkingService = h2Service();
+            default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * Each thread acts as one gate and parks its own plates, so plates never
+     * collide between threads.
+     */
+    @State(Scope.Thread)
+    public static class Gate {
+
+        private static final AtomicInteger GATES = new AtomicInteger();
+
+        private final String prefix = "BENCH-" + GATES.incrementAndGet() + "-";
+        private long sequence;
+
+        ParkRequest nextRequest() {
+            return ParkRequest.builder()
+                    .licensePlate(prefix + sequence++)
+                    .vehicleType(VehicleType.CAR)
+                    .spotType(SPOT_TYPE)
+                    .build();
+        }
+    }
+
+    /**
+     * Parks a vehicle and exits it again, keeping lot occupancy steady across
+     * iterations.
+     */
+    @Benchmark
+    public VehicleResponse parkThenExit(Gate gate) {
+        VehicleResponse parked = parkingService.parkVehicle(gate.nextRequest());
+        return parkingService.exitVehicle(parked.getLicensePlate());
+    }
+
+    @Benchmark
+    public AvailabilityResponse availability() {
+        return parkingService.getAvailableSpots();
+    }
+
+    private ParkingService inMemoryService() {
+        InMemoryRepositories repositories = new InMemoryRepositories(lotSize, SPOT_TYPE);
+
+        FreeSpotAllocator allocator = new FreeSpotAllocator(repositories.parkingSpotRepository(),
+                repositories.parkingFloorRepository(), repositories.parkingLotRepository(),
+                List.of(new FirstFitStrategy()), AllocationStrategy.FIRST_FIT);
+        allocator.seed();
+        OccupancyCounters counters = new OccupancyCounters(repositories.parkingSpotRepository());
+        counters.reconcile();
+        ActiveSessionIndex index = new ActiveSessionIndex(repositories.vehicleRepository());
+        index.rebuild();
+
+        // The journal is measured on its own, keep it off the service path here
+        OccupancyJournal journal = new OccupancyJournal(Path.of("journal"), 1, false, Duration.ofSeconds(1));
+        SpotClaimer claimer = new SpotClaimer(repositories.parkingSpotRepository(), allocator, counters,
+                new SpotTypeFallbacks());
+        // Benchmark requests never carry a reservation, so the reservation service is never called
+        ReservationServiceImpl reservations = new ReservationServiceImpl(repositories.spotReservationRepository(),
+                claimer, new ReservationExpiryWheel(repositories.spotReservationRepository(), Duration.ofSeconds(1), 512),
+                index, journal);
+
+        return new ParkingServiceImpl(repositories.vehicleRepository(), repositories.parkingSessionHistoryRepository(),
+                counters, index,
+                new ParkingMetrics(new SimpleMeterRegistry(), counters, repositories.parkingSpotRepository(),
+                        Duration.ofMinutes(1)),
+                claimer, reservations, journal, new TariffEngine(new TariffProperties()));
+    }
+
+    private ParkingService h2Service() {
+        context = new SpringApplicationBuilder(ParkingLotApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.sql.init.mode=never",
+                        "parking.history.partitioned=false",
+                        "parking.occupancy.reconcile-interval=PT24H",
+                        "parking.journal.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        insertSpots(context.getBean(JdbcTemplate.class), lotSize);
+        context.getBean(FreeSpotAllocator.class).seed();
+        context.getBean(OccupancyCounters.class).reconcile();
+        context.getBean(ActiveSessionIndex.class).rebuild();
+        return context.getBean(ParkingService.class);
+    }
+
+    /**
+     * Bypasses JPA so that seeding a million spots takes seconds. IDs are taken
+     * from the far end of the range to stay clear of the entity sequences.
+     */
+    static void insertSpots(JdbcTemplate jdbcTemplate, int lotSize) {
+        jdbcTemplate.update("INSERT INTO parking_lot (id, name, address) VALUES (1000000000, 'Benchmark Lot', '1 Bench St')");
+        jdbcTemplate.update("INSERT INTO parking_floor (id, floor_number, parking_lot_id) VALUES (1000000000, 1, 1000000000)");
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (long i = 0; i < lotSize; i++) {
+            long id = 1_000_000_000L + i;
+            batch.add(new Object[]{id, "S-" + i, SPOT_TYPE.name()});
+            if (batch.size() == INSERT_BATCH_SIZE || i == lotSize - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO parking_spot (id, spot_number, type, is_occupied, floor_id, version) "
+                        + "VALUES (?, ?, ?, false, 1000000000, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
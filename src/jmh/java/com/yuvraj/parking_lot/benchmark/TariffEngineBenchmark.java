@@ -0,0 +1,52 @@
+package com.yuvraj.parking_lot.benchmark;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.tariff.TariffEngine;
+import com.yuvraj.parking_lot.tariff.TariffProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures pricing one session with the default tariff, over sessions of up to
+ * three days that start at any minute of the week. Run with {@code -prof gc}
+ * to confirm pricing allocates nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TariffEngineBenchmark {
+
+    private static final int SESSIONS = 4096;
+
+    private final TariffEngine tariffEngine = new TariffEngine(new TariffProperties());
+    private final LocalDateTime[] entryTimes = new LocalDateTime[SESSIONS];
+    private final LocalDateTime[] exitTimes = new LocalDateTime[SESSIONS];
+    private final ParkingSpotType[] spotTypes = new ParkingSpotType[SESSIONS];
+    private final VehicleType[] vehicleTypes = new VehicleType[SESSIONS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime monday = LocalDateTime.of(2026, 1, 5, 0, 0);
+        for (int i = 0; i < SESSIONS; i++) {
+            entryTimes[i] = monday.plusMinutes(random.nextInt(7 * 24 * 60));
+            exitTimes[i] = entryTimes[i].plusMinutes(random.nextInt(3 * 24 * 60)).plusSeconds(random.nextInt(60));
+            spotTypes[i] = ParkingSpotType.values()[random.nextInt(ParkingSpotType.values().length)];
+            vehicleTypes[i] = VehicleType.values()[random.nextInt(VehicleType.values().length)];
+        }
+    }
+
+    @Benchmark
+    public long priceExit() {
+        int i = next++ & (SESSIONS - 1);
+        return tariffEngine.priceCents(spotTypes[i], vehicleTypes[i], entryTimes[i], exitTimes[i]);
+    }
+}
@@ -0,0 +1,193 @@
+package com.yuvraj.parking_lot.simulator;
+
+import com.yuvraj.parking_lot.ParkingLotApplication;
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.occupancy.ActiveSessionIndex;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.service.ParkingService;
+import com.yuvraj.parking_lot.simulator.TrafficModel.Arrival;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a rush hour against the application running on embedded H2 in
+ * PostgreSQL mode: vehicles arrive as a Poisson process peaking mid-run,
+ * park, stay for a log-normal dwell time and exit. Arrivals are open-loop,
+ * issued when due whether or not earlier requests have finished, and go
+ * either through the REST API or straight to {@link ParkingService}.
+ * <p>
+ * Options are {@code simulator.*} properties (see {@link SimulationSettings});
+ * any other application property, such as {@code parking.group-commit.enabled},
+ * can be overridden the same way.
+ * <pre>
+ * ./mvnw -Pbenchmark,simulator test-compile exec:exec -Dsimulator.args="--simulator.peak-rate=400"
+ * </pre>
+ */
+public class RushHourSimulator {
+
+    private static final long ID_BASE = 1_000_000_000L;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        // Passed as arguments so they take precedence over application.properties, and the caller's over them
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:rush-hour;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.hikari.maximum-pool-size", "20");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("spring.devtools.restart.enabled", "false");
+        properties.put("parking.history.partitioned", "false");
+        properties.put("parking.journal.enabled", "false");
+        properties.put("parking.snapshot.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            properties.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ParkingLotApplication.class)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+        try {
+            SimulationSettings settings = Binder.get(context.getEnvironment())
+                    .bindOrCreate("simulator", SimulationSettings.class);
+            seedLot(context, settings);
+            new RushHourSimulator().run(context, settings);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run(ConfigurableApplicationContext context, SimulationSettings settings) throws InterruptedException {
+        SimulationTarget target = switch (settings.getTarget()) {
+            case SERVICE -> new SimulationTarget.Service(context.getBean(ParkingService.class));
+            case HTTP -> new SimulationTarget.Http(((WebServerApplicationContext) context).getWebServer().getPort());
+        };
+        SimulationReport report = new SimulationReport(context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics());
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getWorkers());
+        ScheduledExecutorService departures = Executors.newSingleThreadScheduledExecutor();
+        TrafficModel traffic = new TrafficModel(settings);
+
+        long startedAt = System.nanoTime();
+        long arrivals = 0;
+        for (Arrival arrival = traffic.next(); arrival != null; arrival = traffic.next()) {
+            long dueNanos = startedAt + arrival.atNanos();
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            String licensePlate = "SIM-" + ++arrivals;
+            Arrival parking = arrival;
+            workers.execute(() -> park(target, report, workers, departures, licensePlate, parking, dueNanos));
+        }
+
+        // Vehicles still parked stay put, their departures fall outside the run
+        departures.shutdownNow();
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        report.print(System.out, settings, arrivals, Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    private void park(SimulationTarget target, SimulationReport report, ExecutorService workers,
+                      ScheduledExecutorService departures, String licensePlate, Arrival arrival, long dueNanos) {
+        try {
+            target.park(ParkRequest.builder()
+                    .licensePlate(licensePlate)
+                    .vehicleType(arrival.vehicleType())
+                    .build());
+        } catch (RuntimeException ex) {
+            report.rejected(SimulationReport.PARK, dueNanos, SimulationTarget.reason(ex));
+            return;
+        }
+        report.succeeded(SimulationReport.PARK, dueNanos);
+
+        long departsAt = System.nanoTime() + arrival.dwellNanos();
+        try {
+            departures.schedule(() -> workers.execute(() -> exit(target, report, licensePlate, departsAt)),
+                    arrival.dwellNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            // The run is over, the vehicle stays parked
+        }
+    }
+
+    private void exit(SimulationTarget target, SimulationReport report, String licensePlate, long dueNanos) {
+        try {
+            target.exit(licensePlate);
+            report.succeeded(SimulationReport.EXIT, dueNanos);
+        } catch (RuntimeException ex) {
+            report.rejected(SimulationReport.EXIT, dueNanos, SimulationTarget.reason(ex));
+        }
+    }
+
+    /**
+     * Inserts one lot of {@code spots} spots spread over {@code floors} floors
+     * in the proportions of the spot mix, bypassing JPA so seeding stays fast.
+     */
+    private static void seedLot(ConfigurableApplicationContext context, SimulationSettings settings) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO parking_lot (id, name, address) VALUES (?, 'Rush Hour Lot', '1 Peak St')",
+                ID_BASE);
+        for (int floor = 0; floor < settings.getFloors(); floor++) {
+            jdbcTemplate.update("INSERT INTO parking_floor (id, floor_number, parking_lot_id) VALUES (?, ?, ?)",
+                    ID_BASE + floor, floor + 1, ID_BASE);
+        }
+
+        Map<ParkingSpotType, Integer> mix = settings.getSpotMix();
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        long id = ID_BASE;
+        for (Map.Entry<ParkingSpotType, Integer> entry : mix.entrySet()) {
+            long count = (long) settings.getSpots() * entry.getValue() / totalWeight;
+            for (long i = 0; i < count; i++, id++) {
+                long floorId = ID_BASE + id % settings.getFloors();
+                batch.add(new Object[]{id, entry.getKey().name().charAt(0) + "-" + i, entry.getKey().name(), floorId});
+                if (batch.size() == INSERT_BATCH_SIZE) {
+                    insertSpots(jdbcTemplate, batch);
+                }
+            }
+        }
+        insertSpots(jdbcTemplate, batch);
+
+        context.getBean(FreeSpotAllocator.class).seed();
+        context.getBean(OccupancyCounters.class).reconcile();
+        context.getBean(ActiveSessionIndex.class).rebuild();
+    }
+
+    private static void insertSpots(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO parking_spot (id, spot_number, type, is_occupied, floor_id, version) "
+                + "VALUES (?, ?, ?, false, ?, 0)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,121 @@
+package com.yuvraj.parking_lot.simulator;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.stat.Statistics;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the outcome of a run: response times per operation, rejections by
+ * reason, occupancy, and the database work done, read from Hibernate's
+ * statistics.
+ * <p>
+ * Response times run from when a request was due, not from when a worker got
+ * to it, so a saturated application shows up as latency rather than as a
+ * quietly lower arrival rate.
+ */
+class SimulationReport {
+
+    static final String PARK = "park";
+    static final String EXIT = "exit";
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final AtomicLong parked = new AtomicLong();
+    private final AtomicLong peakParked = new AtomicLong();
+    private final Statistics statistics;
+
+    SimulationReport(Statistics statistics) {
+        this.statistics = statistics;
+        statistics.clear();
+    }
+
+    void succeeded(String operation, long dueNanos) {
+        timer(operation, "success").record(System.nanoTime() - dueNanos, TimeUnit.NANOSECONDS);
+        if (PARK.equals(operation)) {
+            peakParked.accumulateAndGet(parked.incrementAndGet(), Math::max);
+        } else {
+            parked.decrementAndGet();
+        }
+    }
+
+    void rejected(String operation, long dueNanos, String reason) {
+        timer(operation, "rejected").record(System.nanoTime() - dueNanos, TimeUnit.NANOSECONDS);
+        rejections.computeIfAbsent(operation + " " + reason, key -> new LongAdder()).increment();
+    }
+
+    void print(PrintStream out, SimulationSettings settings, long arrivals, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%nRush-hour simulation: target=%s, %d arrivals over %.1f s, %d spots on %d floors%n",
+                settings.getTarget(), arrivals, seconds, settings.getSpots(), settings.getFloors());
+        out.printf("Arrival rate %.0f/s rising to %.0f/s, dwell median %s (sigma %.2f), seed %d%n%n",
+                settings.getBaseRate(), settings.getPeakRate(), settings.getDwellMedian(),
+                settings.getDwellSigma(), settings.getSeed());
+
+        out.printf("%-6s %-9s %9s %9s %9s %9s %9s %9s %9s%n",
+                "op", "outcome", "count", "per sec", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long requests = 0;
+        for (String operation : new String[]{PARK, EXIT}) {
+            for (String outcome : new String[]{"success", "rejected"}) {
+                Timer timer = registry.find("simulator." + operation).tag("outcome", outcome).timer();
+                if (timer == null || timer.count() == 0) {
+                    continue;
+                }
+                requests += timer.count();
+                ValueAtPercentile[] values = timer.takeSnapshot().percentileValues();
+                double max = timer.max(TimeUnit.MILLISECONDS);
+                out.printf("%-6s %-9s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", operation, outcome,
+                        timer.count(), timer.count() / seconds,
+                        millis(values[0], max), millis(values[1], max), millis(values[2], max), millis(values[3], max),
+                        max);
+            }
+        }
+
+        out.printf("%nRejections%n");
+        if (rejections.isEmpty()) {
+            out.printf("  none%n");
+        }
+        new TreeMap<>(rejections).forEach((reason, count) -> out.printf("  %-40s %9d%n", reason, count.sum()));
+        out.printf("%nOccupancy: peak %d, still parked at the end %d%n", peakParked.get(), parked.get());
+
+        long statements = statistics.getPrepareStatementCount();
+        out.printf("%nDatabase%n");
+        out.printf("  %-40s %9d (%.2f per request)%n", "JDBC statements", statements,
+                requests > 0 ? (double) statements / requests : 0);
+        out.printf("  %-40s %9d%n", "HQL/SQL queries", statistics.getQueryExecutionCount());
+        out.printf("  %-40s %9d%n", "entity loads", statistics.getEntityLoadCount());
+        out.printf("  %-40s %9d%n", "entity inserts", statistics.getEntityInsertCount());
+        out.printf("  %-40s %9d%n", "entity updates", statistics.getEntityUpdateCount());
+        out.printf("  %-40s %9d%n", "entity deletes", statistics.getEntityDeleteCount());
+        out.printf("  %-40s %9d%n", "second-level cache hits", statistics.getSecondLevelCacheHitCount());
+        out.printf("  %-40s %9d%n", "second-level cache misses", statistics.getSecondLevelCacheMissCount());
+        out.printf("  %-40s %9d%n", "committed transactions", statistics.getSuccessfulTransactionCount());
+        out.printf("  %-40s %9d%n", "optimistic lock failures", statistics.getOptimisticFailureCount());
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("simulator." + operation)
+                .tag("outcome", outcome)
+                .publishPercentiles(PERCENTILES)
+                // Percentiles over the whole run rather than a sliding window
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(registry);
+    }
+
+    // Percentiles are interpolated within histogram buckets and can overshoot the recorded maximum
+    private static double millis(ValueAtPercentile value, double max) {
+        return Math.min(value.value(TimeUnit.MILLISECONDS), max);
+    }
+}
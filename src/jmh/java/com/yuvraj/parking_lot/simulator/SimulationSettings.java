@@ -0,0 +1,56 @@
+package com.yuvraj.parking_lot.simulator;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Options of a {@link RushHourSimulator} run, bound from {@code simulator.*}
+ * properties, e.g. {@code --simulator.peak-rate=400}.
+ */
+@Data
+public class SimulationSettings {
+
+    public enum Target {
+        SERVICE,
+        HTTP
+    }
+
+    private Target target = Target.HTTP;
+
+    private Duration duration = Duration.ofMinutes(1);
+
+    // Arrivals per second outside and at the height of the rush hour, which peaks halfway through
+    private double baseRate = 20;
+    private double peakRate = 200;
+
+    // Log-normal dwell time
+    private Duration dwellMedian = Duration.ofSeconds(20);
+    private double dwellSigma = 0.8;
+
+    private long seed = 42;
+
+    private int workers = 64;
+
+    private int floors = 4;
+    private int spots = 2000;
+
+    // Relative weights
+    private Map<VehicleType, Integer> vehicleMix = new EnumMap<>(Map.of(
+            VehicleType.CAR, 70,
+            VehicleType.MOTORBIKE, 10,
+            VehicleType.ELECTRIC, 10,
+            VehicleType.VAN, 8,
+            VehicleType.TRUCK, 2));
+
+    private Map<ParkingSpotType, Integer> spotMix = new EnumMap<>(Map.of(
+            ParkingSpotType.COMPACT, 60,
+            ParkingSpotType.LARGE, 20,
+            ParkingSpotType.MOTORBIKE, 10,
+            ParkingSpotType.ELECTRIC, 7,
+            ParkingSpotType.HANDICAPPED, 3));
+}
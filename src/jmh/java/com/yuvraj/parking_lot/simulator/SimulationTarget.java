@@ -0,0 +1,95 @@
+package com.yuvraj.parking_lot.simulator;
+
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.service.ParkingService;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Where simulated gates send their parks and exits. A rejected request throws,
+ * and the exception's {@link #reason(RuntimeException) reason} is what the
+ * report counts it under.
+ */
+interface SimulationTarget {
+
+    void park(ParkRequest request);
+
+    void exit(String licensePlate);
+
+    static String reason(RuntimeException ex) {
+        return ex instanceof HttpRejection ? ex.getMessage() : ex.getClass().getSimpleName();
+    }
+
+    /**
+     * Calls {@link ParkingService} in-process, skipping HTTP, the controller
+     * and any group commit.
+     */
+    record Service(ParkingService parkingService) implements SimulationTarget {
+
+        @Override
+        public void park(ParkRequest request) {
+            parkingService.parkVehicle(request);
+        }
+
+        @Override
+        public void exit(String licensePlate) {
+            parkingService.exitVehicle(licensePlate);
+        }
+    }
+
+    /**
+     * Calls the REST API of the application under test.
+     */
+    record Http(HttpClient httpClient, String baseUrl) implements SimulationTarget {
+
+        Http(int port) {
+            this(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(),
+                    "http://localhost:" + port + "/api/vehicles");
+        }
+
+        @Override
+        public void park(ParkRequest request) {
+            String body = "{\"licensePlate\":\"" + request.getLicensePlate()
+                    + "\",\"vehicleType\":\"" + request.getVehicleType() + "\"}";
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/park"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpStatus.CREATED);
+        }
+
+        @Override
+        public void exit(String licensePlate) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/exit/" + licensePlate))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build(), HttpStatus.OK);
+        }
+
+        private void send(HttpRequest request, HttpStatus expected) {
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+            if (status != expected.value()) {
+                throw new HttpRejection(status);
+            }
+        }
+    }
+
+    class HttpRejection extends RuntimeException {
+
+        HttpRejection(int status) {
+            super("HTTP " + status);
+        }
+    }
+}
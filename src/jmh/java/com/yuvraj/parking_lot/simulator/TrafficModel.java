@@ -0,0 +1,94 @@
+package com.yuvraj.parking_lot.simulator;
+
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Draws the arrival process of a run from one seeded random source, so the
+ * same settings always produce the same arrivals, dwell times and vehicles.
+ * <p>
+ * Arrivals are a non-homogeneous Poisson process whose rate rises from the
+ * base rate to the peak rate along a Gaussian centred on the middle of the
+ * run, sampled by thinning. Dwell times are log-normal around the median.
+ */
+class TrafficModel {
+
+    record Arrival(long atNanos, VehicleType vehicleType, long dwellNanos) {
+    }
+
+    private final SplittableRandom random;
+    private final double baseRate;
+    private final double peakRate;
+    private final double durationSeconds;
+    private final double dwellMu;
+    private final double dwellSigma;
+    private final VehicleType[] vehicleTypes;
+    private final int[] cumulativeWeights;
+
+    private double clockSeconds;
+
+    TrafficModel(SimulationSettings settings) {
+        this.random = new SplittableRandom(settings.getSeed());
+        this.baseRate = settings.getBaseRate();
+        this.peakRate = Math.max(settings.getBaseRate(), settings.getPeakRate());
+        this.durationSeconds = settings.getDuration().toNanos() / 1e9;
+        this.dwellMu = Math.log(settings.getDwellMedian().toNanos());
+        this.dwellSigma = settings.getDwellSigma();
+
+        Map<VehicleType, Integer> mix = settings.getVehicleMix();
+        this.vehicleTypes = mix.keySet().toArray(VehicleType[]::new);
+        this.cumulativeWeights = new int[vehicleTypes.length];
+        int total = 0;
+        for (int i = 0; i < vehicleTypes.length; i++) {
+            total += mix.get(vehicleTypes[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0 || peakRate <= 0) {
+            throw new IllegalArgumentException("The vehicle mix and the arrival rate must be positive");
+        }
+    }
+
+    /**
+     * Arrivals per second at {@code seconds} into the run.
+     */
+    double rate(double seconds) {
+        double width = durationSeconds / 6;
+        double offset = seconds - durationSeconds / 2;
+        return baseRate + (peakRate - baseRate) * Math.exp(-offset * offset / (2 * width * width));
+    }
+
+    /**
+     * The next arrival, or {@code null} once the run is over.
+     */
+    Arrival next() {
+        while (true) {
+            clockSeconds += -Math.log(1 - random.nextDouble()) / peakRate;
+            if (clockSeconds >= durationSeconds) {
+                return null;
+            }
+            if (random.nextDouble() * peakRate < rate(clockSeconds)) {
+                long dwellNanos = (long) Math.exp(dwellMu + dwellSigma * gaussian());
+                return new Arrival((long) (clockSeconds * 1e9), vehicleType(), dwellNanos);
+            }
+        }
+    }
+
+    private VehicleType vehicleType() {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return vehicleTypes[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    // Box-Muller, SplittableRandom has no nextGaussian on Java 17
+    private double gaussian() {
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+}
@@ -0,0 +1,69 @@
+package com.yuvraj.parking_lot.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with the benchmark profile, which compiles src/jmh/java:
+ * {@code ./mvnw -Pbenchmark test -Dtest=TrafficModelTest}.
+ */
+class TrafficModelTest {
+
+    @Test
+    @DisplayName("Should draw the same arrivals for the same seed and different ones for another")
+    void testSeedDeterminism() {
+        SimulationSettings settings = settings(7);
+
+        List<TrafficModel.Arrival> first = arrivals(settings);
+        assertFalse(first.isEmpty());
+        assertEquals(first, arrivals(settings));
+        assertNotEquals(first, arrivals(settings(8)));
+    }
+
+    @Test
+    @DisplayName("Should match the configured arrival rate integrated over the run")
+    void testMeanArrivalRate() {
+        SimulationSettings settings = settings(42);
+        TrafficModel model = new TrafficModel(settings);
+        double seconds = settings.getDuration().toSeconds();
+        double expected = 0;
+        for (double t = 0; t < seconds; t += 0.01) {
+            expected += model.rate(t + 0.005) * 0.01;
+        }
+
+        List<TrafficModel.Arrival> arrivals = arrivals(settings);
+
+        // About 5,700 expected, so 5% is nearly four standard deviations of a Poisson count
+        assertEquals(expected, arrivals.size(), expected * 0.05);
+        double peak = model.rate(seconds / 2);
+        assertEquals(settings.getPeakRate(), peak, 1e-9);
+        assertTrue(model.rate(0) < peak / 2);
+        for (int i = 1; i < arrivals.size(); i++) {
+            assertTrue(arrivals.get(i).atNanos() >= arrivals.get(i - 1).atNanos());
+        }
+    }
+
+    private static SimulationSettings settings(long seed) {
+        SimulationSettings settings = new SimulationSettings();
+        settings.setDuration(Duration.ofMinutes(1));
+        settings.setBaseRate(20);
+        settings.setPeakRate(200);
+        settings.setSeed(seed);
+        return settings;
+    }
+
+    private static List<TrafficModel.Arrival> arrivals(SimulationSettings settings) {
+        TrafficModel model = new TrafficModel(settings);
+        List<TrafficModel.Arrival> arrivals = new ArrayList<>();
+        for (TrafficModel.Arrival arrival = model.next(); arrival != null; arrival = model.next()) {
+            arrivals.add(arrival);
+        }
+        return arrivals;
+    }
+}
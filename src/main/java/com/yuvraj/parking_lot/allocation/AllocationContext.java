@@ -0,0 +1,10 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+
+/**
+ * What a park request asks for. {@code preferredFloorId} may be {@code null}.
+ */
+public record AllocationContext(ParkingSpotType spotType, VehicleType vehicleType, Long preferredFloorId) {
+}
@@ -0,0 +1,28 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes the lowest free spot on the first floor, in creation order, that has
+ * one. The cheapest strategy and the default.
+ */
+@Component
+public class FirstFitStrategy implements SpotAllocationStrategy {
+
+    @Override
+    public AllocationStrategy type() {
+        return AllocationStrategy.FIRST_FIT;
+    }
+
+    @Override
+    public Long select(LotPool lot, AllocationContext context) {
+        for (FloorPool floor : lot.floors()) {
+            Long spotId = floor.poll(context.spotType());
+            if (spotId != null) {
+                return spotId;
+            }
+        }
+        return null;
+    }
+}
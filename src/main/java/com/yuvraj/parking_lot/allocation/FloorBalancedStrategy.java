@@ -0,0 +1,43 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spreads vehicles across floors by taking a spot on the floor with the most
+ * free spots of the requested type.
+ */
+@Component
+public class FloorBalancedStrategy implements SpotAllocationStrategy {
+
+    @Override
+    public AllocationStrategy type() {
+        return AllocationStrategy.FLOOR_BALANCED;
+    }
+
+    @Override
+    public Long select(LotPool lot, AllocationContext context) {
+        FloorPool emptiest = null;
+        for (FloorPool floor : lot.floors()) {
+            if (floor.free(context.spotType()) > 0
+                    && (emptiest == null || floor.free(context.spotType()) > emptiest.free(context.spotType()))) {
+                emptiest = floor;
+            }
+        }
+        if (emptiest == null) {
+            return null;
+        }
+        Long spotId = emptiest.poll(context.spotType());
+        if (spotId != null) {
+            return spotId;
+        }
+        // A concurrent gate drained it first; settle for any floor rather than rescanning for the next best
+        for (FloorPool floor : lot.floors()) {
+            spotId = floor.poll(context.spotType());
+            if (spotId != null) {
+                return spotId;
+            }
+        }
+        return null;
+    }
+}
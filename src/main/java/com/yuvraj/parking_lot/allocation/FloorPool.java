@@ -0,0 +1,20 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+
+/**
+ * Free spot candidates on one floor, kept in spot ID order per type.
+ */
+public interface FloorPool {
+
+    Long floorId();
+
+    int floorNumber();
+
+    int free(ParkingSpotType type);
+
+    /**
+     * Removes and returns the lowest free spot ID of the type, or {@code null}.
+     */
+    Long poll(ParkingSpotType type);
+}
@@ -0,0 +1,25 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+
+import java.util.List;
+
+/**
+ * Read and poll view of one lot's free spot candidates, handed to a
+ * {@link SpotAllocationStrategy}. Both floor lists are maintained as floors
+ * appear, so strategies never sort on the hot path.
+ */
+public interface LotPool {
+
+    /**
+     * Floors in the order they were created.
+     */
+    List<FloorPool> floors();
+
+    /**
+     * Floors ordered by distance from ground level, ground floor first.
+     */
+    List<FloorPool> floorsByLevel();
+
+    long free(ParkingSpotType type);
+}
@@ -0,0 +1,29 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes the free spot closest to the entrance: the floor nearest ground level,
+ * then the lowest spot ID on it, on the assumption that spots are provisioned
+ * outwards from the ramp.
+ */
+@Component
+public class NearestToEntranceStrategy implements SpotAllocationStrategy {
+
+    @Override
+    public AllocationStrategy type() {
+        return AllocationStrategy.NEAREST_TO_ENTRANCE;
+    }
+
+    @Override
+    public Long select(LotPool lot, AllocationContext context) {
+        for (FloorPool floor : lot.floorsByLevel()) {
+            Long spotId = floor.poll(context.spotType());
+            if (spotId != null) {
+                return spotId;
+            }
+        }
+        return null;
+    }
+}
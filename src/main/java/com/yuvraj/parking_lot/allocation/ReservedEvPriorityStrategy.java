@@ -0,0 +1,39 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * First-fit, except that the last {@code parking.allocation.ev-reserve}
+ * electric spots of a lot are held back for electric vehicles.
+ */
+@Component
+public class ReservedEvPriorityStrategy implements SpotAllocationStrategy {
+
+    private final FirstFitStrategy firstFit = new FirstFitStrategy();
+    private final int evReserve;
+
+    public ReservedEvPriorityStrategy(@Value("${parking.allocation.ev-reserve:2}") int evReserve) {
+        this.evReserve = evReserve;
+    }
+
+    @Override
+    public AllocationStrategy type() {
+        return AllocationStrategy.RESERVED_EV_PRIORITY;
+    }
+
+    @Override
+    public boolean permits(LotPool lot, AllocationContext context) {
+        return context.spotType() != ParkingSpotType.ELECTRIC
+                || context.vehicleType() == VehicleType.ELECTRIC
+                || lot.free(ParkingSpotType.ELECTRIC) > evReserve;
+    }
+
+    @Override
+    public Long select(LotPool lot, AllocationContext context) {
+        return firstFit.select(lot, context);
+    }
+}
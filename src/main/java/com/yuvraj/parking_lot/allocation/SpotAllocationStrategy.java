@@ -0,0 +1,31 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+
+/**
+ * Decides which free spot in a lot a park request gets.
+ * <p>
+ * Implementations are Spring beans, picked per lot through
+ * {@code ParkingLot.allocationStrategy}. A requested floor is always tried
+ * before {@link #select} is consulted. Every call must cost at most
+ * O(floors) plus one pool poll, so allocation latency does not grow with the
+ * number of spots.
+ */
+public interface SpotAllocationStrategy {
+
+    AllocationStrategy type();
+
+    /**
+     * Whether the lot may serve this request at all. A refusal also keeps the
+     * database fallback from handing out a spot.
+     */
+    default boolean permits(LotPool lot, AllocationContext context) {
+        return true;
+    }
+
+    /**
+     * Removes and returns a candidate spot ID from the lot, or {@code null} if
+     * none of the requested type is pooled.
+     */
+    Long select(LotPool lot, AllocationContext context);
+}
@@ -0,0 +1,37 @@
+package com.yuvraj.parking_lot.allocation;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which spot types each vehicle type may use, in order of preference. Used when
+ * a park request leaves {@code spotType} out, so a full type falls through to
+ * the next one within the same call. Entries set under
+ * {@code parking.allocation.spot-types} replace the default for that vehicle
+ * type.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "parking.allocation")
+public class SpotTypeFallbacks {
+
+    private Map<VehicleType, List<ParkingSpotType>> spotTypes = new EnumMap<>(Map.of(
+            VehicleType.CAR, List.of(ParkingSpotType.COMPACT, ParkingSpotType.LARGE),
+            VehicleType.VAN, List.of(ParkingSpotType.LARGE),
+            VehicleType.TRUCK, List.of(ParkingSpotType.LARGE),
+            VehicleType.MOTORBIKE, List.of(ParkingSpotType.MOTORBIKE, ParkingSpotType.COMPACT),
+            VehicleType.ELECTRIC, List.of(ParkingSpotType.ELECTRIC, ParkingSpotType.COMPACT, ParkingSpotType.LARGE)));
+
+    public List<ParkingSpotType> chainFor(VehicleType vehicleType) {
+        return spotTypes.getOrDefault(vehicleType, List.of());
+    }
+}
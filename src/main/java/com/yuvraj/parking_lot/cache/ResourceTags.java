@@ -0,0 +1,48 @@
+package com.yuvraj.parking_lot.cache;
+
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ETags for the polled read endpoints, built from the occupancy and topology
+ * version counters so a conditional GET is answered without running the
+ * query behind the response.
+ * <p>
+ * A tag is read before its response is built. A change that lands in between
+ * only makes the body newer than its tag, so the next poll fetches it again.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceTags {
+
+    private final OccupancyCounters occupancyCounters;
+    private final TopologyCache topologyCache;
+
+    // Counters restart with the process, so tags from another instance or an earlier run never match
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    public String availability(Long parkingLotId) {
+        return parkingLotId == null
+                ? tag("availability", occupancyCounters.getVersion())
+                : tag("availability-" + parkingLotId, occupancyCounters.getVersion(parkingLotId));
+    }
+
+    public String parkingLots() {
+        return tag("lots", occupancyCounters.getVersion(), topologyCache.getVersion());
+    }
+
+    public String floorsOfLot(Long parkingLotId) {
+        return tag("floors-" + parkingLotId, occupancyCounters.getVersion(parkingLotId), topologyCache.getVersion());
+    }
+
+    private String tag(String resource, long... versions) {
+        StringBuilder tag = new StringBuilder(resource).append('-').append(epoch);
+        for (long version : versions) {
+            tag.append('-').append(version);
+        }
+        return tag.toString();
+    }
+}
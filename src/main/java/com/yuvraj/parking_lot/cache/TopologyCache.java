@@ -0,0 +1,84 @@
+package com.yuvraj.parking_lot.cache;
+
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.occupancy.TransactionCallbacks;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second-level cache regions for the lot and floor topology, which only the
+ * admin endpoints change.
+ * <p>
+ * Hibernate keeps the entity regions current for writes made through JPA, but
+ * not the inverse {@code ParkingLot.floors} collection when a floor is saved on
+ * its own, nor rows changed outside JPA. The admin write paths therefore evict
+ * what they touch explicitly, once their transaction has committed so a
+ * concurrent read cannot put the old state back. Every such change also bumps
+ * the topology version used in ETags.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopologyCache {
+
+    public static final String LOT_REGION = "topology.parking-lot";
+    public static final String LOT_FLOORS_REGION = "topology.parking-lot.floors";
+    public static final String FLOOR_REGION = "topology.parking-floor";
+
+    public static final List<String> REGIONS = List.of(LOT_REGION, LOT_FLOORS_REGION, FLOOR_REGION);
+
+    private static final String LOT_FLOORS_ROLE = ParkingLot.class.getName() + ".floors";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Increases once a lot or floor is created or changed, after the commit.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void changedAfterCommit() {
+        TransactionCallbacks.afterCommit(version::incrementAndGet);
+    }
+
+    public void evictLotAfterCommit(Long parkingLotId) {
+        TransactionCallbacks.afterCommit(() -> {
+            evictLot(parkingLotId);
+            version.incrementAndGet();
+        });
+    }
+
+    public void evictFloorAfterCommit(Long floorId) {
+        TransactionCallbacks.afterCommit(() -> {
+            evictFloor(floorId);
+            version.incrementAndGet();
+        });
+    }
+
+    public void evictLot(Long parkingLotId) {
+        cache().evictEntityData(ParkingLot.class, parkingLotId);
+        cache().evictCollectionData(LOT_FLOORS_ROLE, parkingLotId);
+    }
+
+    public void evictFloor(Long floorId) {
+        cache().evictEntityData(ParkingFloor.class, floorId);
+    }
+
+    public void evictAll() {
+        cache().evictEntityData(ParkingLot.class);
+        cache().evictCollectionData(LOT_FLOORS_ROLE);
+        cache().evictEntityData(ParkingFloor.class);
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.yuvraj.parking_lot.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.yuvraj.parking_lot.cache.TopologyCache;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for the {@link TopologyCache} regions, backed by
+ * size-bounded Caffeine caches. Each region's hits, misses, puts and evictions
+ * are published as {@code cache.*} meters tagged with the region name.
+ */
+@Configuration
+public class TopologyCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager topologyCacheManager(@Value("${parking.cache.topology.max-entries:10000}") long maxEntries) {
+        // One manager per application context, so contexts sharing a JVM never share entries
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("parking-topology-" + System.identityHashCode(this)), getClass().getClassLoader());
+        for (String region : TopologyCache.REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer topologyCacheCustomizer(CacheManager topologyCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, topologyCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder topologyCacheMetrics(CacheManager topologyCacheManager) {
+        return registry -> TopologyCache.REGIONS.forEach(region ->
+                JCacheMetrics.monitor(registry, topologyCacheManager.getCache(region), Tags.empty()));
+    }
+}
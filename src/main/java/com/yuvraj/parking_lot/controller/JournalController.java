@@ -0,0 +1,50 @@
+package com.yuvraj.parking_lot.controller;
+
+import com.yuvraj.parking_lot.dto.JournalPage;
+import com.yuvraj.parking_lot.journal.JournalEvent;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/journal")
+@RequiredArgsConstructor
+@Tag(name = "Journal", description = "Occupancy change journal APIs")
+public class JournalController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final OccupancyJournal occupancyJournal;
+
+    @GetMapping
+    @Operation(summary = "Read journal events after a sequence number, oldest first")
+    public ResponseEntity<JournalPage> read(@RequestParam(defaultValue = "0") long after,
+                                            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(toPage(occupancyJournal.read(after, clampPageSize(limit)), after));
+    }
+
+    @GetMapping("/tail")
+    @Operation(summary = "Get the latest journal events")
+    public ResponseEntity<JournalPage> tail(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(toPage(occupancyJournal.tail(clampPageSize(limit)), occupancyJournal.getLastSequence()));
+    }
+
+    private JournalPage toPage(List<JournalEvent> events, long after) {
+        return JournalPage.builder()
+                .events(events)
+                .nextCursor(events.isEmpty() ? after : events.get(events.size() - 1).sequence())
+                .build();
+    }
+
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
@@ -1,5 +1,6 @@
 package com.yuvraj.parking_lot.controller;
 
+import com.yuvraj.parking_lot.cache.ResourceTags;
 import com.yuvraj.parking_lot.dto.ParkingFloorRequest;
 import com.yuvraj.parking_lot.dto.ParkingFloorResponse;
 import com.yuvraj.parking_lot.service.ParkingFloorService;
@@ -10,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,6 +22,7 @@ import java.util.List;
 public class ParkingFloorController {
 
     private final ParkingFloorService parkingFloorService;
+    private final ResourceTags resourceTags;
 
     @PostMapping
     @Operation(summary = "Add a new floor to a parking lot")
@@ -36,7 +39,12 @@ public class ParkingFloorController {
 
     @GetMapping("/parking-lot/{parkingLotId}")
     @Operation(summary = "Get all floors of a parking lot")
-    public ResponseEntity<List<ParkingFloorResponse>> getFloorsByParkingLotId(@PathVariable Long parkingLotId) {
-        return ResponseEntity.ok(parkingFloorService.getFloorsByParkingLotId(parkingLotId));
+    public ResponseEntity<List<ParkingFloorResponse>> getFloorsByParkingLotId(@PathVariable Long parkingLotId,
+                                                                              WebRequest webRequest) {
+        String etag = resourceTags.floorsOfLot(parkingLotId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(parkingFloorService.getFloorsByParkingLotId(parkingLotId));
     }
 }
@@ -1,5 +1,6 @@
 package com.yuvraj.parking_lot.controller;
 
+import com.yuvraj.parking_lot.cache.ResourceTags;
 import com.yuvraj.parking_lot.dto.ParkingLotRequest;
 import com.yuvraj.parking_lot.dto.ParkingLotResponse;
 import com.yuvraj.parking_lot.service.ParkingLotService;
@@ -10,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,6 +22,7 @@ import java.util.List;
 public class ParkingLotController {
 
     private final ParkingLotService parkingLotService;
+    private final ResourceTags resourceTags;
 
     @PostMapping
     @Operation(summary = "Create a new parking lot")
@@ -36,7 +39,11 @@ public class ParkingLotController {
 
     @GetMapping
     @Operation(summary = "Get all parking lots")
-    public ResponseEntity<List<ParkingLotResponse>> getAllParkingLots() {
-        return ResponseEntity.ok(parkingLotService.getAllParkingLots());
+    public ResponseEntity<List<ParkingLotResponse>> getAllParkingLots(WebRequest webRequest) {
+        String etag = resourceTags.parkingLots();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(parkingLotService.getAllParkingLots());
     }
 }
@@ -1,7 +1,11 @@
 package com.yuvraj.parking_lot.controller;
 
+import com.yuvraj.parking_lot.dto.BulkSpotRequest;
+import com.yuvraj.parking_lot.dto.ParkingSpotPage;
 import com.yuvraj.parking_lot.dto.ParkingSpotRequest;
 import com.yuvraj.parking_lot.dto.ParkingSpotResponse;
+import com.yuvraj.parking_lot.dto.SpotImportFormat;
+import com.yuvraj.parking_lot.dto.SpotImportResponse;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import com.yuvraj.parking_lot.service.ParkingSpotService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,7 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/spots")
@@ -29,6 +33,24 @@ public class ParkingSpotController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Add many parking spots in one request")
+    public ResponseEntity<SpotImportResponse> addSpots(@Valid @RequestBody BulkSpotRequest request) {
+        return ResponseEntity.ok(parkingSpotService.addSpots(request.getSpots()));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Stream a CSV file of spots (spotNumber,type,floorId)")
+    public ResponseEntity<SpotImportResponse> importSpotsCsv(InputStream body) {
+        return ResponseEntity.ok(parkingSpotService.importSpots(body, SpotImportFormat.CSV));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(summary = "Stream newline-delimited JSON spots")
+    public ResponseEntity<SpotImportResponse> importSpotsNdjson(InputStream body) {
+        return ResponseEntity.ok(parkingSpotService.importSpots(body, SpotImportFormat.NDJSON));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get parking spot by ID")
     public ResponseEntity<ParkingSpotResponse> getSpotById(@PathVariable Long id) {
@@ -36,14 +58,18 @@ public class ParkingSpotController {
     }
 
     @GetMapping("/available")
-    @Operation(summary = "Get available spots by type")
-    public ResponseEntity<List<ParkingSpotResponse>> getAvailableSpots(@RequestParam ParkingSpotType type) {
-        return ResponseEntity.ok(parkingSpotService.getAvailableSpotsByType(type));
+    @Operation(summary = "Get available spots by type, one page at a time")
+    public ResponseEntity<ParkingSpotPage> getAvailableSpots(@RequestParam ParkingSpotType type,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(parkingSpotService.getAvailableSpotsByType(type, after, limit));
     }
 
     @GetMapping("/floor/{floorId}")
-    @Operation(summary = "Get all spots on a floor")
-    public ResponseEntity<List<ParkingSpotResponse>> getSpotsByFloor(@PathVariable Long floorId) {
-        return ResponseEntity.ok(parkingSpotService.getSpotsByFloorId(floorId));
+    @Operation(summary = "Get the spots on a floor, one page at a time")
+    public ResponseEntity<ParkingSpotPage> getSpotsByFloor(@PathVariable Long floorId,
+                                                           @RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(parkingSpotService.getSpotsByFloorId(floorId, after, limit));
     }
 }
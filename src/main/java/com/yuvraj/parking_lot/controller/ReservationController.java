@@ -0,0 +1,40 @@
+package com.yuvraj.parking_lot.controller;
+
+import com.yuvraj.parking_lot.dto.ReservationRequest;
+import com.yuvraj.parking_lot.dto.ReservationResponse;
+import com.yuvraj.parking_lot.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservations")
+@RequiredArgsConstructor
+@Tag(name = "Reservation", description = "Timed spot reservation APIs")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @PostMapping
+    @Operation(summary = "Hold a spot for a vehicle that has not arrived yet")
+    public ResponseEntity<ReservationResponse> reserveSpot(@Valid @RequestBody ReservationRequest request) {
+        ReservationResponse response = reservationService.reserveSpot(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get reservation by ID")
+    public ResponseEntity<ReservationResponse> getReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.getReservation(id));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel an active reservation and free its spot")
+    public ResponseEntity<ReservationResponse> cancelReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.cancelReservation(id));
+    }
+}
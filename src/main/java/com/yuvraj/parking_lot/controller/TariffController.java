@@ -0,0 +1,32 @@
+package com.yuvraj.parking_lot.controller;
+
+import com.yuvraj.parking_lot.dto.RerateResponse;
+import com.yuvraj.parking_lot.service.TariffService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/tariff")
+@RequiredArgsConstructor
+@Tag(name = "Tariff", description = "Parking fee APIs")
+public class TariffController {
+
+    private final TariffService tariffService;
+
+    @PostMapping("/rerate")
+    @Operation(summary = "Re-price sessions that exited in [from, to) with the current tariff")
+    public ResponseEntity<RerateResponse> rerate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(tariffService.rerate(from, to));
+    }
+}
@@ -1,16 +1,27 @@
 package com.yuvraj.parking_lot.controller;
 
+import com.yuvraj.parking_lot.cache.ResourceTags;
 import com.yuvraj.parking_lot.dto.AvailabilityResponse;
+import com.yuvraj.parking_lot.dto.BatchExitRequest;
+import com.yuvraj.parking_lot.dto.BatchParkRequest;
+import com.yuvraj.parking_lot.dto.BatchResponse;
 import com.yuvraj.parking_lot.dto.ParkRequest;
 import com.yuvraj.parking_lot.dto.VehicleResponse;
+import com.yuvraj.parking_lot.idempotency.IdempotencyStore;
+import com.yuvraj.parking_lot.metrics.ParkingMetrics;
+import com.yuvraj.parking_lot.occupancy.AvailabilityBroadcaster;
 import com.yuvraj.parking_lot.service.ParkingService;
+import com.yuvraj.parking_lot.service.impl.GroupCommitCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/vehicles")
@@ -19,23 +30,72 @@ import org.springframework.web.bind.annotation.*;
 public class VehicleController {
 
     private final ParkingService parkingService;
+    private final ParkingMetrics parkingMetrics;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final ResourceTags resourceTags;
+    private final IdempotencyStore idempotencyStore;
+    private final GroupCommitCoalescer groupCommitCoalescer;
 
     @PostMapping("/park")
-    @Operation(summary = "Park a vehicle")
-    public ResponseEntity<VehicleResponse> parkVehicle(@Valid @RequestBody ParkRequest request) {
-        VehicleResponse response = parkingService.parkVehicle(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    @Operation(summary = "Park a vehicle. Retries with the same Idempotency-Key replay the original response")
+    public ResponseEntity<VehicleResponse> parkVehicle(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ParkRequest request) {
+        // Timed here rather than in the service so the commit is included
+        return parkingMetrics.time(ParkingMetrics.PARK, () -> idempotencyStore.execute(idempotencyKey, "park",
+                request, HttpStatus.CREATED, VehicleResponse.class, () -> groupCommitCoalescer.parkVehicle(request)));
+    }
+
+    @PostMapping("/park/batch")
+    @Operation(summary = "Park a batch of vehicles in one transaction")
+    public ResponseEntity<BatchResponse> parkVehicles(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchParkRequest request) {
+        ResponseEntity<BatchResponse> response = parkingMetrics.time(ParkingMetrics.PARK_BATCH,
+                () -> idempotencyStore.execute(idempotencyKey, "park-batch", request, HttpStatus.OK, BatchResponse.class,
+                        () -> parkingService.parkVehicles(request.getRequests())));
+        parkingMetrics.rejected(ParkingMetrics.PARK_BATCH, response.getBody());
+        return response;
     }
 
     @PostMapping("/exit/{licensePlate}")
-    @Operation(summary = "Exit a vehicle from parking")
-    public ResponseEntity<VehicleResponse> exitVehicle(@PathVariable String licensePlate) {
-        return ResponseEntity.ok(parkingService.exitVehicle(licensePlate));
+    @Operation(summary = "Exit a vehicle from parking. Retries with the same Idempotency-Key replay the original response")
+    public ResponseEntity<VehicleResponse> exitVehicle(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @PathVariable String licensePlate) {
+        return parkingMetrics.time(ParkingMetrics.EXIT, () -> idempotencyStore.execute(idempotencyKey, "exit",
+                licensePlate, HttpStatus.OK, VehicleResponse.class, () -> groupCommitCoalescer.exitVehicle(licensePlate)));
+    }
+
+    // Not /exit/batch, which would shadow the exit of a vehicle whose plate is "batch"
+    @PostMapping("/exits")
+    @Operation(summary = "Exit a batch of vehicles in one transaction")
+    public ResponseEntity<BatchResponse> exitVehicles(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchExitRequest request) {
+        ResponseEntity<BatchResponse> response = parkingMetrics.time(ParkingMetrics.EXIT_BATCH,
+                () -> idempotencyStore.execute(idempotencyKey, "exit-batch", request, HttpStatus.OK, BatchResponse.class,
+                        () -> parkingService.exitVehicles(request.getLicensePlates())));
+        parkingMetrics.rejected(ParkingMetrics.EXIT_BATCH, response.getBody());
+        return response;
     }
 
     @GetMapping("/availability")
     @Operation(summary = "Get real-time parking availability")
-    public ResponseEntity<AvailabilityResponse> getAvailability() {
-        return ResponseEntity.ok(parkingService.getAvailableSpots());
+    public ResponseEntity<AvailabilityResponse> getAvailability(@RequestParam(required = false) Long parkingLotId,
+                                                                WebRequest webRequest) {
+        String etag = resourceTags.availability(parkingLotId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(parkingLotId != null
+                ? parkingService.getAvailableSpots(parkingLotId)
+                : parkingService.getAvailableSpots());
+    }
+
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream availability as Server-Sent Events: a snapshot, then coalesced deltas")
+    public SseEmitter streamAvailability() {
+        return availabilityBroadcaster.subscribe();
     }
 }
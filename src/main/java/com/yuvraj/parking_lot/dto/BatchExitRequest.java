@@ -0,0 +1,20 @@
+package com.yuvraj.parking_lot.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchExitRequest {
+
+    @NotEmpty(message = "At least one license plate is required")
+    @Size(max = 500, message = "A batch may contain at most 500 license plates")
+    private List<@NotBlank(message = "License plate is required") String> licensePlates;
+}
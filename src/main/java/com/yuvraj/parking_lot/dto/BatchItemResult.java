@@ -0,0 +1,23 @@
+package com.yuvraj.parking_lot.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    private int index;
+    private int status;
+    private VehicleResponse vehicle;
+    private String error;
+
+    // The rejection behind error, for callers that rethrow it in-process
+    @JsonIgnore
+    private RuntimeException exception;
+}
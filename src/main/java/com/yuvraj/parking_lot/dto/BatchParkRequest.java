@@ -0,0 +1,20 @@
+package com.yuvraj.parking_lot.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchParkRequest {
+
+    @NotEmpty(message = "At least one park request is required")
+    @Size(max = 500, message = "A batch may contain at most 500 requests")
+    private List<@Valid ParkRequest> requests;
+}
@@ -0,0 +1,17 @@
+package com.yuvraj.parking_lot.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResult> results;
+}
@@ -0,0 +1,20 @@
+package com.yuvraj.parking_lot.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkSpotRequest {
+
+    // Rows are validated one by one during the import so a bad row is reported, not fatal
+    @NotEmpty(message = "At least one spot is required")
+    @Size(max = 10000, message = "A bulk request may contain at most 10000 spots, use the import endpoint for more")
+    private List<ParkingSpotRequest> spots;
+}
@@ -0,0 +1,21 @@
+package com.yuvraj.parking_lot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.yuvraj.parking_lot.journal.JournalEvent;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JournalPage {
+
+    private List<JournalEvent> events;
+
+    // Pass as "after" to poll for later events
+    private Long nextCursor;
+}
@@ -19,6 +19,14 @@ public class ParkRequest {
     @NotNull(message = "Vehicle type is required")
     private VehicleType vehicleType;
 
-    @NotNull(message = "Spot type is required")
+    // Optional: without it, the vehicle type's fallback chain in parking.allocation.spot-types is used
     private ParkingSpotType spotType;
+
+    // Optional scope: park within this lot, preferring this floor when it has room
+    private Long parkingLotId;
+
+    private Long floorId;
+
+    // Optional: park in the spot held by this reservation instead of allocating one
+    private Long reservationId;
 }
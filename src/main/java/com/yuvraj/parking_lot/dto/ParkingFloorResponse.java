@@ -1,7 +1,11 @@
 package com.yuvraj.parking_lot.dto;
 
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import lombok.*;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,5 +17,10 @@ public class ParkingFloorResponse {
     private Integer floorNumber;
     private Long parkingLotId;
     private String parkingLotName;
-    private int totalSpots;
+    private long totalSpots;
+    private long freeSpots;
+    private long occupiedSpots;
+
+    @Builder.Default
+    private Map<ParkingSpotType, SpotSummary> spotsByType = new EnumMap<>(ParkingSpotType.class);
 }
@@ -1,5 +1,6 @@
 package com.yuvraj.parking_lot.dto;
 
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
@@ -15,4 +16,6 @@ public class ParkingLotRequest {
 
     @NotBlank(message = "Address is required")
     private String address;
+
+    private AllocationStrategy allocationStrategy;
 }
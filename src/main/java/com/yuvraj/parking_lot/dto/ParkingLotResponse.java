@@ -1,7 +1,12 @@
 package com.yuvraj.parking_lot.dto;
 
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import lombok.*;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,5 +17,12 @@ public class ParkingLotResponse {
     private Long id;
     private String name;
     private String address;
+    private AllocationStrategy allocationStrategy;
     private int totalFloors;
+    private long totalSpots;
+    private long freeSpots;
+    private long occupiedSpots;
+
+    @Builder.Default
+    private Map<ParkingSpotType, SpotSummary> spotsByType = new EnumMap<>(ParkingSpotType.class);
 }
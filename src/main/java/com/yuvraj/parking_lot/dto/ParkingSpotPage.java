@@ -0,0 +1,20 @@
+package com.yuvraj.parking_lot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ParkingSpotPage {
+
+    private List<ParkingSpotResponse> spots;
+
+    // Pass as "after" to fetch the next page, absent on the last page
+    private Long nextCursor;
+}
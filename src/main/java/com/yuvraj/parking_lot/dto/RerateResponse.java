@@ -0,0 +1,22 @@
+package com.yuvraj.parking_lot.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RerateResponse {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long sessions;
+    private long changed;
+    private BigDecimal totalBefore;
+    private BigDecimal totalAfter;
+    private long elapsedMillis;
+}
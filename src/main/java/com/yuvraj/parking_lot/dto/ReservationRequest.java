@@ -0,0 +1,35 @@
+package com.yuvraj.parking_lot.dto;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationRequest {
+
+    @NotBlank(message = "License plate is required")
+    private String licensePlate;
+
+    @NotNull(message = "Vehicle type is required")
+    private VehicleType vehicleType;
+
+    // Same scoping and fallback rules as ParkRequest
+    private ParkingSpotType spotType;
+
+    private Long parkingLotId;
+
+    private Long floorId;
+
+    // Defaults to parking.reservation.default-hold
+    @Min(value = 1, message = "Hold must be at least 1 minute")
+    @Max(value = 240, message = "Hold must be at most 240 minutes")
+    private Integer holdMinutes;
+}
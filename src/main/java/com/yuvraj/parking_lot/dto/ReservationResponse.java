@@ -0,0 +1,24 @@
+package com.yuvraj.parking_lot.dto;
+
+import com.yuvraj.parking_lot.entity.enums.ReservationStatus;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationResponse {
+
+    private Long id;
+    private String licensePlate;
+    private VehicleType vehicleType;
+    private String spotNumber;
+    private String spotType;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private ReservationStatus status;
+}
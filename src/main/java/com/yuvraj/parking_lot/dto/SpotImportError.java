@@ -0,0 +1,14 @@
+package com.yuvraj.parking_lot.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpotImportError {
+
+    private long row;
+    private String message;
+}
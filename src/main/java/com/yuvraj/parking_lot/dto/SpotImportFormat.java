@@ -0,0 +1,6 @@
+package com.yuvraj.parking_lot.dto;
+
+public enum SpotImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,18 @@
+package com.yuvraj.parking_lot.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpotImportResponse {
+
+    private long imported;
+    private long failed;
+    private List<SpotImportError> errors;
+    private boolean errorsTruncated;
+}
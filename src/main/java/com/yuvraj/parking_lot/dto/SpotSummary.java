@@ -0,0 +1,19 @@
+package com.yuvraj.parking_lot.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpotSummary {
+
+    private long total;
+    private long free;
+    private long occupied;
+
+    public static SpotSummary of(long total, long occupied) {
+        return new SpotSummary(total, total - occupied, occupied);
+    }
+}
@@ -3,6 +3,7 @@ package com.yuvraj.parking_lot.dto;
 import com.yuvraj.parking_lot.entity.enums.VehicleType;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -19,4 +20,5 @@ public class VehicleResponse {
     private LocalDateTime exitTime;
     private String spotNumber;
     private String spotType;
+    private BigDecimal fee;
 }
@@ -1,12 +1,16 @@
 package com.yuvraj.parking_lot.entity;
 
+import com.yuvraj.parking_lot.cache.TopologyCache;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TopologyCache.FLOOR_REGION)
 @Table(name = "parking_floor")
 @Getter
 @Setter
@@ -1,12 +1,17 @@
 package com.yuvraj.parking_lot.entity;
 
+import com.yuvraj.parking_lot.cache.TopologyCache;
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TopologyCache.LOT_REGION)
 @Table(name = "parking_lot")
 @Getter
 @Setter
@@ -25,7 +30,13 @@ public class ParkingLot {
     @Column(nullable = false)
     private String address;
 
+    // Null falls back to parking.allocation.default-strategy
+    @Enumerated(EnumType.STRING)
+    @Column(name = "allocation_strategy")
+    private AllocationStrategy allocationStrategy;
+
     @OneToMany(mappedBy = "parkingLot", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TopologyCache.LOT_FLOORS_REGION)
     @Builder.Default
     private List<ParkingFloor> floors = new ArrayList<>();
 }
@@ -0,0 +1,60 @@
+package com.yuvraj.parking_lot.entity;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A completed parking session. Written once when a vehicle exits and only
+ * updated to re-rate its fee; on PostgreSQL the table is range-partitioned
+ * by {@code exit_time}.
+ */
+@Entity
+@Table(name = "parking_session_history")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParkingSessionHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_session_history_seq")
+    @SequenceGenerator(name = "parking_session_history_seq", sequenceName = "parking_session_history_seq", allocationSize = 50)
+    private Long id;
+
+    // Id the session had in the vehicle table while it was active
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "license_plate", nullable = false)
+    private String licensePlate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vehicle_type", nullable = false)
+    private VehicleType vehicleType;
+
+    @Column(name = "entry_time")
+    private LocalDateTime entryTime;
+
+    @Column(name = "exit_time", nullable = false)
+    private LocalDateTime exitTime;
+
+    @Column(name = "spot_id")
+    private Long spotId;
+
+    @Column(name = "spot_number")
+    private String spotNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "spot_type")
+    private ParkingSpotType spotType;
+
+    // Priced at exit, and again whenever the session is re-rated
+    @Column(precision = 10, scale = 2)
+    private BigDecimal fee;
+}
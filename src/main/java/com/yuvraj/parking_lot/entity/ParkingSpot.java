@@ -3,9 +3,13 @@ package com.yuvraj.parking_lot.entity;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "parking_spot")
+@Table(name = "parking_spot", indexes = {
+        @Index(name = "idx_parking_spot_floor", columnList = "floor_id, id"),
+        @Index(name = "idx_parking_spot_type_available", columnList = "type, is_occupied, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,7 +18,9 @@ import lombok.*;
 public class ParkingSpot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids keep Hibernate insert batching enabled, IDENTITY would disable it
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_spot_seq")
+    @SequenceGenerator(name = "parking_spot_seq", sequenceName = "parking_spot_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "spot_number", nullable = false)
@@ -31,4 +37,8 @@ public class ParkingSpot {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "floor_id", nullable = false)
     private ParkingFloor floor;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
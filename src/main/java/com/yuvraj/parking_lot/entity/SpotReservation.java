@@ -0,0 +1,68 @@
+package com.yuvraj.parking_lot.entity;
+
+import com.yuvraj.parking_lot.entity.enums.ReservationStatus;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A spot held for a vehicle that has not arrived yet. While the reservation is
+ * {@code ACTIVE} its spot is marked occupied; the hold ends when the vehicle
+ * parks, the reservation is cancelled, or {@code expiresAt} passes.
+ * <p>
+ * A plate holds at most one {@code ACTIVE} reservation, enforced by a unique
+ * constraint on {@code active_license_plate}, which mirrors the plate while
+ * the reservation is active and is null otherwise.
+ */
+@Entity
+@Table(name = "spot_reservation", indexes = {
+        @Index(name = "idx_spot_reservation_status_expiry", columnList = "status, expires_at"),
+        @Index(name = "idx_spot_reservation_plate_status", columnList = "license_plate, status")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_spot_reservation_active_plate", columnNames = "active_license_plate")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpotReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spot_reservation_seq")
+    @SequenceGenerator(name = "spot_reservation_seq", sequenceName = "spot_reservation_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "license_plate", nullable = false)
+    private String licensePlate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vehicle_type", nullable = false)
+    private VehicleType vehicleType;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parking_spot_id", nullable = false)
+    private ParkingSpot spot;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "active_license_plate")
+    private String activeLicensePlate;
+
+    @PrePersist
+    @PreUpdate
+    void syncActiveLicensePlate() {
+        activeLicensePlate = status == ReservationStatus.ACTIVE ? licensePlate : null;
+    }
+}
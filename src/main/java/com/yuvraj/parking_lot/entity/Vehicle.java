@@ -6,6 +6,11 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+/**
+ * An active parking session. The row is removed on exit and the completed
+ * session is written to {@link ParkingSessionHistory}, so this table only ever
+ * holds vehicles that are currently parked.
+ */
 @Entity
 @Table(name = "vehicle")
 @Getter
@@ -16,7 +21,9 @@ import java.time.LocalDateTime;
 public class Vehicle {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids keep Hibernate insert batching enabled, IDENTITY would disable it
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_seq")
+    @SequenceGenerator(name = "vehicle_seq", sequenceName = "vehicle_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "license_plate", nullable = false, unique = true)
@@ -29,9 +36,6 @@ public class Vehicle {
     @Column(name = "entry_time")
     private LocalDateTime entryTime;
 
-    @Column(name = "exit_time")
-    private LocalDateTime exitTime;
-
     @OneToOne
     @JoinColumn(name = "parking_spot_id")
     private ParkingSpot parkingSpot;
@@ -0,0 +1,8 @@
+package com.yuvraj.parking_lot.entity.enums;
+
+public enum AllocationStrategy {
+    FIRST_FIT,
+    FLOOR_BALANCED,
+    NEAREST_TO_ENTRANCE,
+    RESERVED_EV_PRIORITY
+}
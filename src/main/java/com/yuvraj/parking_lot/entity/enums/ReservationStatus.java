@@ -0,0 +1,8 @@
+package com.yuvraj.parking_lot.entity.enums;
+
+public enum ReservationStatus {
+    ACTIVE,
+    FULFILLED,
+    CANCELLED,
+    EXPIRED
+}
@@ -0,0 +1,8 @@
+package com.yuvraj.parking_lot.exception;
+
+public class GroupCommitTimeoutException extends RuntimeException {
+
+    public GroupCommitTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.yuvraj.parking_lot.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
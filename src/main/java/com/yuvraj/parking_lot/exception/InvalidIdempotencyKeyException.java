@@ -0,0 +1,8 @@
+package com.yuvraj.parking_lot.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.yuvraj.parking_lot.exception;
+
+public class RerateInProgressException extends RuntimeException {
+
+    public RerateInProgressException(String message) {
+        super(message);
+    }
+}
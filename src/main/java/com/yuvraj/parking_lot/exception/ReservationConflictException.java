@@ -0,0 +1,8 @@
+package com.yuvraj.parking_lot.exception;
+
+public class ReservationConflictException extends RuntimeException {
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,123 @@
+package com.yuvraj.parking_lot.history;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Owns the PostgreSQL {@code parking_session_history} table, which is range
+ * partitioned by exit month so old sessions never slow down the hot path and
+ * can be detached or dropped a month at a time.
+ * <p>
+ * On startup it creates the table, a default partition and the monthly
+ * partitions ahead of the current date, then moves completed sessions left in
+ * the legacy {@code vehicle.exit_time} column into history. A nightly job keeps
+ * creating partitions ahead of time. Disabled unless
+ * {@code parking.history.partitioned=true}; on other databases Hibernate
+ * creates a plain table.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SessionHistoryPartitionManager {
+
+    static final String TABLE = "parking_session_history";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${parking.history.partitioned:false}")
+    private boolean partitioned;
+
+    @Value("${parking.history.months-ahead:2}")
+    private int monthsAhead;
+
+    @PostConstruct
+    public void initialize() {
+        if (!partitioned) {
+            return;
+        }
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS parking_session_history (
+                    id bigint NOT NULL,
+                    session_id bigint NOT NULL,
+                    license_plate varchar(255) NOT NULL,
+                    vehicle_type varchar(255) NOT NULL,
+                    entry_time timestamp(6),
+                    exit_time timestamp(6) NOT NULL,
+                    spot_id bigint,
+                    spot_number varchar(255),
+                    spot_type varchar(255),
+                    fee numeric(10,2),
+                    PRIMARY KEY (id, exit_time)
+                ) PARTITION BY RANGE (exit_time)""");
+        // Tables created before fees were recorded
+        jdbcTemplate.execute("ALTER TABLE parking_session_history ADD COLUMN IF NOT EXISTS fee numeric(10,2)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS parking_session_history_default "
+                + "PARTITION OF parking_session_history DEFAULT");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_parking_session_history_plate "
+                + "ON parking_session_history (license_plate, exit_time)");
+        createPartitions();
+        archiveLegacySessions();
+    }
+
+    @Scheduled(cron = "${parking.history.partition-cron:0 0 3 * * *}")
+    public void createPartitions() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String sql = "CREATE TABLE IF NOT EXISTS %s_y%dm%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(TABLE, month.getYear(), month.getMonthValue(), TABLE, from, to);
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException ex) {
+            // Typically rows for this month already landed in the default partition
+            log.warn("Could not create history partition for {}: {}", month, ex.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Before the split, completed sessions stayed in the vehicle table with an
+     * exit time. Move them into history once and drop the column.
+     */
+    private void archiveLegacySessions() {
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns "
+                        + "WHERE table_schema = current_schema() AND table_name = 'vehicle' AND column_name = 'exit_time'",
+                Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) {
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int archived = jdbcTemplate.update("""
+                    INSERT INTO parking_session_history (id, session_id, license_plate, vehicle_type, entry_time, exit_time)
+                    SELECT nextval('parking_session_history_seq'), id, license_plate, vehicle_type, entry_time, exit_time
+                    FROM vehicle WHERE exit_time IS NOT NULL""");
+            jdbcTemplate.update("DELETE FROM vehicle WHERE exit_time IS NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE vehicle DROP COLUMN exit_time");
+            log.info("Archived {} completed sessions from the vehicle table", archived);
+        });
+    }
+}
@@ -0,0 +1,179 @@
+package com.yuvraj.parking_lot.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuvraj.parking_lot.entity.IdempotencyRecord;
+import com.yuvraj.parking_lot.exception.IdempotencyConflictException;
+import com.yuvraj.parking_lot.exception.InvalidIdempotencyKeyException;
+import com.yuvraj.parking_lot.occupancy.TransactionCallbacks;
+import com.yuvraj.parking_lot.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the original response for requests retried with the same
+ * {@code Idempotency-Key} header.
+ * <p>
+ * A keyed request runs in one transaction together with the insert of its
+ * {@link IdempotencyRecord}, so the work and the record commit or roll back
+ * together. Committed records are kept in a bounded LRU cache in front of the
+ * table, and rows older than {@code parking.idempotency.ttl} are purged. A
+ * retry that arrives while the original is still running gets a 409 rather
+ * than running twice.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Map<String, IdempotencyRecord> cache;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${parking.idempotency.cache-size:10000}") int cacheSize,
+                            @Value("${parking.idempotency.ttl:PT24H}") Duration ttl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Runs {@code action} once per key and operation, answering repeats with
+     * the stored response. Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, HttpStatus status,
+                                         Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return ResponseEntity.status(status).body(action.get());
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = operation + ":" + key;
+        String requestHash = hash(request);
+        IdempotencyRecord stored = find(id);
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        if (!inFlight.add(id)) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        try {
+            return transactionTemplate.execute(tx -> {
+                // Checked again under the in-flight guard, the original may have committed meanwhile
+                IdempotencyRecord committed = find(id);
+                if (committed != null) {
+                    return replay(committed, requestHash, responseType);
+                }
+                T body = action.get();
+                IdempotencyRecord record = idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                        .id(id)
+                        .requestHash(requestHash)
+                        .statusCode(status.value())
+                        .responseBody(toJson(body))
+                        .createdAt(LocalDateTime.now())
+                        .build());
+                TransactionCallbacks.afterCommit(() -> cache.put(id, record));
+                return ResponseEntity.status(status).body(body);
+            });
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${parking.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${parking.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        Integer purged = transactionTemplate.execute(tx -> idempotencyRecordRepository.deleteCreatedBefore(cutoff));
+        synchronized (cache) {
+            cache.values().removeIf(record -> record.getCreatedAt().isBefore(cutoff));
+        }
+        log.debug("Purged {} idempotency records older than {}", purged, cutoff);
+    }
+
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    private IdempotencyRecord find(String id) {
+        IdempotencyRecord record = cache.get(id);
+        if (record == null) {
+            record = idempotencyRecordRepository.findById(id).orElse(null);
+        }
+        // Past the TTL but not purged yet, treat as unseen
+        if (record == null || record.getCreatedAt().isBefore(LocalDateTime.now().minus(ttl))) {
+            return null;
+        }
+        return record;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(HEADER + " was already used for a different request");
+        }
+        try {
+            return ResponseEntity.status(record.getStatusCode())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(record.getResponseBody(), responseType));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for " + record.getId() + " is not readable", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), ex);
+        }
+    }
+}
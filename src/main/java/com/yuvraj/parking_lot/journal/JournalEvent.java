@@ -0,0 +1,76 @@
+package com.yuvraj.parking_lot.journal;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * One occupancy change as stored in the journal: a fixed 64-byte,
+ * big-endian record.
+ * <pre>
+ *  0  sequence      long
+ *  8  timestamp     long, epoch millis
+ * 16  spotId        long, -1 if none
+ * 24  sessionId     long, vehicle or reservation ID
+ * 32  type          byte, {@link JournalEventType} ordinal
+ * 33  spotType      byte, {@link ParkingSpotType} ordinal, -1 if none
+ * 34  plateLength   byte
+ * 35  (unused)
+ * 36  licensePlate  24 bytes UTF-8, truncated and zero padded
+ * 60  crc32         int, over bytes 0 to 59
+ * </pre>
+ * A record whose sequence is zero or whose checksum does not match marks the
+ * end of the written part of a segment.
+ */
+public record JournalEvent(long sequence, long timestamp, JournalEventType type, Long spotId,
+                           ParkingSpotType spotType, long sessionId, String licensePlate) {
+
+    public static final int RECORD_SIZE = 64;
+
+    private static final int PLATE_OFFSET = 36;
+    private static final int PLATE_BYTES = 24;
+    private static final int CRC_OFFSET = 60;
+
+    void writeTo(ByteBuffer record) {
+        byte[] plate = licensePlate.getBytes(StandardCharsets.UTF_8);
+        int plateLength = Math.min(plate.length, PLATE_BYTES);
+        record.putLong(0, sequence)
+                .putLong(8, timestamp)
+                .putLong(16, spotId != null ? spotId : -1)
+                .putLong(24, sessionId)
+                .put(32, (byte) type.ordinal())
+                .put(33, (byte) (spotType != null ? spotType.ordinal() : -1))
+                .put(34, (byte) plateLength)
+                .put(35, (byte) 0);
+        for (int i = 0; i < PLATE_BYTES; i++) {
+            record.put(PLATE_OFFSET + i, i < plateLength ? plate[i] : 0);
+        }
+        record.putInt(CRC_OFFSET, checksum(record));
+    }
+
+    /**
+     * Decodes the record at the buffer's start, or returns {@code null} if no
+     * complete record was written there.
+     */
+    static JournalEvent readFrom(ByteBuffer record) {
+        long sequence = record.getLong(0);
+        if (sequence <= 0 || record.getInt(CRC_OFFSET) != checksum(record)) {
+            return null;
+        }
+        long spotId = record.getLong(16);
+        byte spotType = record.get(33);
+        byte[] plate = new byte[record.get(34)];
+        record.get(PLATE_OFFSET, plate);
+        return new JournalEvent(sequence, record.getLong(8), JournalEventType.values()[record.get(32)],
+                spotId >= 0 ? spotId : null, spotType >= 0 ? ParkingSpotType.values()[spotType] : null,
+                record.getLong(24), new String(plate, StandardCharsets.UTF_8));
+    }
+
+    private static int checksum(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.slice(0, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,10 @@
+package com.yuvraj.parking_lot.journal;
+
+public enum JournalEventType {
+    PARK,
+    EXIT,
+    RESERVE,
+    RESERVATION_FULFILLED,
+    RESERVATION_CANCELLED,
+    RESERVATION_EXPIRED
+}
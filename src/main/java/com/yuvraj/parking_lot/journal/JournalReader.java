@@ -0,0 +1,154 @@
+package com.yuvraj.parking_lot.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Reads journal segments from a directory. Each segment is named after the
+ * sequence of its first record, so the record for any sequence is found with
+ * one lookup and one positional read, without scanning.
+ * <p>
+ * The reader only touches files and can be pointed at a copied journal
+ * directory by downstream consumers.
+ */
+public class JournalReader {
+
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns up to {@code limit} events with a sequence above
+     * {@code afterSequence}, in order, stopping at the end of the written
+     * journal.
+     */
+    public List<JournalEvent> read(long afterSequence, int limit) {
+        return read(afterSequence, limit, Long.MAX_VALUE);
+    }
+
+    List<JournalEvent> read(long afterSequence, int limit, long lastSequence) {
+        List<JournalEvent> events = new ArrayList<>(Math.min(limit, 1024));
+        NavigableMap<Long, Path> segments = segments();
+        long next = Math.max(afterSequence + 1, 1);
+        ByteBuffer record = ByteBuffer.allocate(JournalEvent.RECORD_SIZE);
+
+        while (events.size() < limit && next <= lastSequence) {
+            Map.Entry<Long, Path> segment = segments.floorEntry(next);
+            if (segment == null) {
+                // Older segments were removed, resume at the oldest one left
+                segment = segments.ceilingEntry(next);
+                if (segment == null) {
+                    break;
+                }
+                next = segment.getKey();
+            }
+            int read = readSegment(segment.getValue(), segment.getKey(), next, limit - events.size(),
+                    lastSequence, record, events);
+            Long following = segments.higherKey(segment.getKey());
+            if (read == 0 && (following == null || following <= next)) {
+                break;
+            }
+            next = read > 0 ? events.get(events.size() - 1).sequence() + 1 : following;
+        }
+        return events;
+    }
+
+    /**
+     * Returns the last record of the journal, or {@code null} if it is empty.
+     */
+    public JournalEvent last() {
+        NavigableMap<Long, Path> segments = segments();
+        for (Map.Entry<Long, Path> segment : segments.descendingMap().entrySet()) {
+            long count = countRecords(segment.getValue());
+            if (count > 0) {
+                List<JournalEvent> events = new ArrayList<>(1);
+                readSegment(segment.getValue(), segment.getKey(), segment.getKey() + count - 1, 1, Long.MAX_VALUE,
+                        ByteBuffer.allocate(JournalEvent.RECORD_SIZE), events);
+                return events.isEmpty() ? null : events.get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts the complete records at the start of a segment.
+     */
+    static long countRecords(Path segment) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer record = ByteBuffer.allocate(JournalEvent.RECORD_SIZE);
+            long count = 0;
+            while (readRecord(channel, count * JournalEvent.RECORD_SIZE, record) != null) {
+                count++;
+            }
+            return count;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    NavigableMap<Long, Path> segments() {
+        NavigableMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return segments;
+    }
+
+    static Path segmentPath(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int readSegment(Path segment, long firstSequence, long from, int limit, long lastSequence,
+                                   ByteBuffer record, List<JournalEvent> events) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            int read = 0;
+            for (long sequence = from; read < limit && sequence <= lastSequence; sequence++) {
+                JournalEvent event = readRecord(channel, (sequence - firstSequence) * JournalEvent.RECORD_SIZE, record);
+                if (event == null || event.sequence() != sequence) {
+                    break;
+                }
+                events.add(event);
+                read++;
+            }
+            return read;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static JournalEvent readRecord(FileChannel channel, long position, ByteBuffer record) throws IOException {
+        record.clear();
+        while (record.hasRemaining()) {
+            if (channel.read(record, position + record.position()) < 0) {
+                return null;
+            }
+        }
+        return JournalEvent.readFrom(record);
+    }
+}
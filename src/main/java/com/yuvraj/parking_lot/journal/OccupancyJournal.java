@@ -0,0 +1,236 @@
+package com.yuvraj.parking_lot.journal;
+
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.occupancy.TransactionCallbacks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only binary journal of park, exit and reservation state changes,
+ * written through memory-mapped segment files of fixed-size
+ * {@link JournalEvent} records.
+ * <p>
+ * Events are appended once their transaction commits, so the journal never
+ * holds a change the database rolled back. An append only copies 64 bytes into
+ * the mapped segment; the written range is forced to disk in one call every
+ * sync interval rather than per event, on a thread of its own so no other
+ * scheduled work can delay it. A crash loses at most the last interval and a
+ * force still in progress. On startup the last segment is scanned up to its first incomplete
+ * record and appending resumes from there.
+ */
+@Slf4j
+@Component
+public class OccupancyJournal {
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final boolean enabled;
+    private final Duration syncInterval;
+    private final JournalReader reader;
+
+    private final ByteBuffer record = ByteBuffer.allocate(JournalEvent.RECORD_SIZE);
+
+    private ScheduledExecutorService syncer;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentCapacity;
+    private int position;
+    private int syncedPosition;
+    private long nextSequence = 1;
+
+    // Highest sequence fully written, the bound for readers
+    private volatile long lastSequence;
+
+    public OccupancyJournal(@Value("${parking.journal.directory:journal}") Path directory,
+                            @Value("${parking.journal.segment-records:1048576}") int recordsPerSegment,
+                            @Value("${parking.journal.enabled:true}") boolean enabled,
+                            @Value("${parking.journal.sync-interval:PT0.05S}") Duration syncInterval) {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.enabled = enabled;
+        this.syncInterval = syncInterval;
+        this.reader = new JournalReader(directory);
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Map.Entry<Long, Path> last = reader.segments().lastEntry();
+            if (last == null) {
+                openSegment(1);
+            } else {
+                long written = JournalReader.countRecords(last.getValue());
+                openSegment(last.getKey());
+                position = (int) written;
+                syncedPosition = position;
+                nextSequence = last.getKey() + written;
+            }
+            lastSequence = nextSequence - 1;
+            log.info("Occupancy journal opened in {} at sequence {}", directory.toAbsolutePath(), lastSequence);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = syncInterval.toNanos();
+        syncer.scheduleWithFixedDelay(this::syncQuietly, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Appends an event for a spot change once the current transaction commits,
+     * or straight away outside a transaction.
+     */
+    public void recordAfterCommit(JournalEventType type, String licensePlate, long sessionId, ParkingSpot spot) {
+        if (!enabled) {
+            return;
+        }
+        Long spotId = spot != null ? spot.getId() : null;
+        ParkingSpotType spotType = spot != null ? spot.getType() : null;
+        TransactionCallbacks.afterCommit(() -> append(type, licensePlate, sessionId, spotId, spotType));
+    }
+
+    public synchronized JournalEvent append(JournalEventType type, String licensePlate, long sessionId, Long spotId,
+                                            ParkingSpotType spotType) {
+        if (!enabled) {
+            return null;
+        }
+        if (position == segmentCapacity) {
+            rollSegment();
+        }
+        JournalEvent event = new JournalEvent(nextSequence, System.currentTimeMillis(), type, spotId, spotType,
+                sessionId, licensePlate);
+        event.writeTo(record);
+        segment.put(position * JournalEvent.RECORD_SIZE, record, 0, JournalEvent.RECORD_SIZE);
+        position++;
+        nextSequence++;
+        lastSequence = event.sequence();
+        return event;
+    }
+
+    /**
+     * Forces the records written since the last sync to disk. The force runs
+     * outside the lock so appends are never held up by the disk.
+     */
+    public void sync() {
+        MappedByteBuffer dirty;
+        int from;
+        int to;
+        synchronized (this) {
+            if (segment == null || syncedPosition == position) {
+                return;
+            }
+            dirty = segment;
+            from = syncedPosition;
+            to = position;
+            syncedPosition = position;
+        }
+        dirty.force(from * JournalEvent.RECORD_SIZE, (to - from) * JournalEvent.RECORD_SIZE);
+    }
+
+    // A failed run would cancel the schedule, so the next interval simply tries again
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to sync occupancy journal", ex);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} events after {@code afterSequence}, oldest
+     * first.
+     */
+    public List<JournalEvent> read(long afterSequence, int limit) {
+        if (!enabled || limit <= 0) {
+            return List.of();
+        }
+        return reader.read(afterSequence, limit, lastSequence);
+    }
+
+    /**
+     * Returns the latest {@code limit} events, oldest first.
+     */
+    public List<JournalEvent> tail(int limit) {
+        return read(Math.max(0, lastSequence - limit), limit);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+            syncer = null;
+        }
+        if (segment == null) {
+            return;
+        }
+        segment.force();
+        syncedPosition = position;
+        closeChannel();
+        segment = null;
+    }
+
+    private void rollSegment() {
+        segment.force();
+        closeChannel();
+        try {
+            openSegment(nextSequence);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = JournalReader.segmentPath(directory, firstSequence);
+        // An existing segment keeps the size it was created with
+        long size = Files.exists(file) && Files.size(file) > 0
+                ? Files.size(file)
+                : (long) recordsPerSegment * JournalEvent.RECORD_SIZE;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segmentCapacity = (int) (size / JournalEvent.RECORD_SIZE);
+        position = 0;
+        syncedPosition = 0;
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            log.warn("Failed to close journal segment", ex);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.yuvraj.parking_lot.metrics;
+
+import com.yuvraj.parking_lot.dto.BatchItemResult;
+import com.yuvraj.parking_lot.dto.BatchResponse;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for the parking hot path.
+ * <p>
+ * Timers are tagged with an {@code outcome} of {@code success} or the simple
+ * name of the exception that ended the operation, and every rejected park or
+ * exit, single or batched, is counted under {@code parking.rejections}. Free
+ * spots per type are read live from {@link OccupancyCounters}. Per-floor
+ * occupancy is not live: nothing in memory tracks occupied spots per floor, so
+ * it is sampled from the database with one grouped query every
+ * {@code parking.metrics.floor-refresh-interval} and can lag by that much.
+ */
+@Component
+public class ParkingMetrics {
+
+    public static final String PARK = "parking.park";
+    public static final String PARK_BATCH = "parking.park.batch";
+    public static final String EXIT = "parking.exit";
+    public static final String EXIT_BATCH = "parking.exit.batch";
+    public static final String SPOT_LOOKUP = "parking.spot.lookup";
+    public static final String VEHICLE_SAVE = "parking.vehicle.save";
+    public static final String SESSION_ARCHIVE = "parking.session.archive";
+    public static final String REJECTIONS = "parking.rejections";
+
+    private static final String SUCCESS = "success";
+
+    private final MeterRegistry meterRegistry;
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final MultiGauge floorOccupancy;
+
+    public ParkingMetrics(MeterRegistry meterRegistry, OccupancyCounters occupancyCounters,
+                          ParkingSpotRepository parkingSpotRepository,
+                          @Value("${parking.metrics.floor-refresh-interval:PT1M}") Duration floorRefreshInterval) {
+        this.meterRegistry = meterRegistry;
+        this.parkingSpotRepository = parkingSpotRepository;
+
+        for (ParkingSpotType type : ParkingSpotType.values()) {
+            Gauge.builder("parking.spots.free", occupancyCounters, counters -> counters.getFreeCount(type))
+                    .description("Free spots per spot type")
+                    .tag("type", type.name())
+                    .register(meterRegistry);
+        }
+        floorOccupancy = MultiGauge.builder("parking.floor.spots")
+                .description("Spots per floor by state, sampled from the database every " + floorRefreshInterval)
+                .register(meterRegistry);
+    }
+
+    public <T> T time(String operation, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = SUCCESS;
+        try {
+            return action.get();
+        } catch (RuntimeException ex) {
+            outcome = ex.getClass().getSimpleName();
+            if (PARK.equals(operation) || EXIT.equals(operation)) {
+                rejected(operation, ex.getClass());
+            }
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer(operation, "outcome", outcome));
+        }
+    }
+
+    public void time(String operation, Runnable action) {
+        time(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Counts the rejected items of a batch. A replayed batch response carries
+     * no exceptions, so its items are not counted twice.
+     */
+    public void rejected(String operation, BatchResponse batch) {
+        for (BatchItemResult result : batch.getResults()) {
+            if (result.getException() != null) {
+                rejected(operation, result.getException().getClass());
+            }
+        }
+    }
+
+    public void rejected(String operation, Class<? extends RuntimeException> reason) {
+        Counter.builder(REJECTIONS)
+                .description("Park and exit requests rejected, by operation and exception")
+                .tag("operation", operation)
+                .tag("exception", reason.getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parking.metrics.floor-refresh-interval:PT1M}",
+            initialDelayString = "${parking.metrics.floor-refresh-interval:PT1M}")
+    public void refreshFloorOccupancy() {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Object[] row : parkingSpotRepository.countSpotsByFloor()) {
+            String floor = String.valueOf(row[0]);
+            long total = ((Number) row[1]).longValue();
+            long occupied = row[2] != null ? ((Number) row[2]).longValue() : 0;
+            rows.add(MultiGauge.Row.of(Tags.of("floor", floor, "state", "occupied"), occupied));
+            rows.add(MultiGauge.Row.of(Tags.of("floor", floor, "state", "free"), total - occupied));
+        }
+        // Overwrite so that floors removed since the last refresh stop being reported
+        floorOccupancy.register(rows, true);
+    }
+}
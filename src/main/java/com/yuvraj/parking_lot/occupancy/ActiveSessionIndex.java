@@ -0,0 +1,88 @@
+package com.yuvraj.parking_lot.occupancy;
+
+import com.yuvraj.parking_lot.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of currently parked license plates, mapped to their vehicle
+ * session and spot.
+ * <p>
+ * A park call reserves the plate before it allocates a spot, so two gates can
+ * never park the same plate at once, and fills in the session once the vehicle
+ * row exists. Changes are undone if the transaction rolls back. The index is
+ * rebuilt from the database at startup; the unique constraint on
+ * {@code vehicle(license_plate)} remains the backstop.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveSessionIndex {
+
+    public record ActiveSession(Long vehicleId, Long spotId) {
+
+        public boolean isPending() {
+            return vehicleId == null;
+        }
+    }
+
+    private static final ActiveSession PENDING = new ActiveSession(null, null);
+
+    private final VehicleRepository vehicleRepository;
+
+    private final Map<String, ActiveSession> sessions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<String, ActiveSession> active = new HashMap<>();
+        for (Object[] row : vehicleRepository.findActiveSessions()) {
+            active.put((String) row[0], new ActiveSession((Long) row[1], (Long) row[2]));
+        }
+        sessions.clear();
+        sessions.putAll(active);
+        log.info("Rebuilt active session index with {} parked vehicles", active.size());
+    }
+
+    public ActiveSession get(String licensePlate) {
+        return sessions.get(licensePlate);
+    }
+
+    /**
+     * Reserves the plate for a park call. Returns {@code false} if the plate is
+     * already parked or being parked.
+     */
+    public boolean reserve(String licensePlate) {
+        if (sessions.putIfAbsent(licensePlate, PENDING) != null) {
+            return false;
+        }
+        TransactionCallbacks.afterRollback(() -> sessions.remove(licensePlate));
+        return true;
+    }
+
+    public void activate(String licensePlate, Long vehicleId, Long spotId) {
+        sessions.put(licensePlate, new ActiveSession(vehicleId, spotId));
+    }
+
+    /**
+     * Drops a reservation whose park call failed without rolling back, e.g. a
+     * batch item that found no free spot. The plate stays reserved until the
+     * transaction completes so the rollback path never races a new reservation.
+     */
+    public void cancel(String licensePlate) {
+        TransactionCallbacks.afterCommit(() -> sessions.remove(licensePlate, PENDING));
+    }
+
+    public void end(String licensePlate) {
+        ActiveSession previous = sessions.remove(licensePlate);
+        if (previous != null) {
+            TransactionCallbacks.afterRollback(() -> sessions.putIfAbsent(licensePlate, previous));
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.yuvraj.parking_lot.occupancy;
+
+import com.yuvraj.parking_lot.dto.AvailabilityResponse;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes availability to Server-Sent Events subscribers.
+ * <p>
+ * A new subscriber receives a {@code snapshot} event with every spot type.
+ * After that, the committed counts of {@link OccupancyCounters} are sampled once
+ * per {@code parking.availability.stream-interval} and a single {@code delta}
+ * event is sent with only the types whose free count changed since the last
+ * push. Parks and exits still in flight are left out, so subscribers never see
+ * a change that is later rolled back. A burst of parks and exits therefore
+ * costs one event per interval, and a quiet lot costs none.
+ * <p>
+ * Sampling only queues events. A small pool of sender threads writes them,
+ * one event at a time per subscriber, so a slow client never holds up the
+ * scheduler, new subscribers or the other clients. A subscriber that falls
+ * {@value #MAX_PENDING_EVENTS} events behind is dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailabilityBroadcaster {
+
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String DELTA_EVENT = "delta";
+
+    private static final int SENDER_THREADS = 4;
+    private static final int MAX_PENDING_EVENTS = 64;
+    private static final Duration COMPLETE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final OccupancyCounters occupancyCounters;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger senderCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS, task -> {
+        Thread thread = new Thread(task, "availability-stream-" + senderCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Map<ParkingSpotType, Long> published = new EnumMap<>(ParkingSpotType.class);
+
+    @Value("${parking.availability.stream-timeout:PT30M}")
+    private Duration streamTimeout;
+
+    /**
+     * Queues the last published counts, under the same lock as
+     * {@link #publishChanges()}, so the subscriber's first delta always
+     * follows on from its snapshot.
+     */
+    public synchronized SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+
+        if (published.isEmpty()) {
+            published = occupancyCounters.committedSnapshot();
+        }
+        subscribers.add(subscriber);
+        subscriber.enqueue(SNAPSHOT_EVENT, toResponse(published, published));
+        return emitter;
+    }
+
+    @Scheduled(fixedRateString = "${parking.availability.stream-interval:PT1S}",
+            initialDelayString = "${parking.availability.stream-interval:PT1S}")
+    public synchronized void publishChanges() {
+        Map<ParkingSpotType, Long> current = occupancyCounters.committedSnapshot();
+        Map<ParkingSpotType, Long> changed = new EnumMap<>(ParkingSpotType.class);
+        current.forEach((type, count) -> {
+            if (!count.equals(published.get(type))) {
+                changed.put(type, count);
+            }
+        });
+        published = current;
+        if (changed.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+
+        AvailabilityResponse delta = toResponse(changed, current);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(DELTA_EVENT, delta);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Completes every stream once the events already queued for it are sent,
+     * waiting a few seconds at most for slow subscribers.
+     */
+    public void completeAll() {
+        CompletableFuture<?>[] closing = subscribers.stream()
+                .map(Subscriber::complete)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(closing).get(COMPLETE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ex) {
+            log.debug("Availability subscribers still sending when completed: {}", ex.toString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completeAll();
+        senders.shutdownNow();
+    }
+
+    private static AvailabilityResponse toResponse(Map<ParkingSpotType, Long> counts, Map<ParkingSpotType, Long> current) {
+        return AvailabilityResponse.builder()
+                .availableSpots(counts)
+                .totalAvailable(current.values().stream().mapToLong(Long::longValue).sum())
+                .build();
+    }
+
+    /**
+     * One stream's queued events, written in order by at most one sender
+     * thread at a time.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final CompletableFuture<Void> closed = new CompletableFuture<>();
+        private volatile boolean completing;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(String event, AvailabilityResponse availability) {
+            if (backlog.incrementAndGet() > MAX_PENDING_EVENTS) {
+                log.debug("Dropping availability subscriber {} events behind", MAX_PENDING_EVENTS);
+                close();
+                return;
+            }
+            pending.add(SseEmitter.event().name(event).data(availability));
+            drainLater();
+        }
+
+        CompletableFuture<Void> complete() {
+            completing = true;
+            drainLater();
+            return closed;
+        }
+
+        private void drainLater() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = pending.poll()) != null) {
+                backlog.decrementAndGet();
+                if (!send(event)) {
+                    close();
+                    return;
+                }
+            }
+            if (completing) {
+                close();
+                return;
+            }
+            draining.set(false);
+            // Events or a completion that arrived after the queue was found empty
+            if (!pending.isEmpty() || completing) {
+                drainLater();
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away, the container reports the error on its own thread
+                log.debug("Dropping availability subscriber: {}", ex.getMessage());
+                return false;
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            pending.clear();
+            emitter.complete();
+            closed.complete(null);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.yuvraj.parking_lot.occupancy;
+
+import com.yuvraj.parking_lot.allocation.AllocationContext;
+import com.yuvraj.parking_lot.allocation.FloorPool;
+import com.yuvraj.parking_lot.allocation.LotPool;
+import com.yuvraj.parking_lot.allocation.SpotAllocationStrategy;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
+import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process pool of free spot IDs, sharded by parking lot, then floor, then
+ * {@link ParkingSpotType}.
+ * <p>
+ * The pool is seeded from the database, or restored from an
+ * {@link OccupancySnapshot}, once the application is ready and is then
+ * maintained by the write paths: claimed spots are polled out, freed spots
+ * are offered back after commit. Gates at different lots never touch the same
+ * pool. Which pooled spot a request gets is decided by the lot's
+ * {@link SpotAllocationStrategy}. The database stays authoritative, so callers
+ * must verify a candidate before using it and simply discard candidates that
+ * turn out to be stale.
+ */
+@Slf4j
+@Component
+public class FreeSpotAllocator {
+
+    private static final Comparator<FloorPool> BY_LEVEL =
+            Comparator.comparingInt((FloorPool floor) -> Math.abs(floor.floorNumber()))
+                    .thenComparingInt(FloorPool::floorNumber)
+                    .thenComparing(FloorPool::floorId);
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final ParkingFloorRepository parkingFloorRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final Map<AllocationStrategy, SpotAllocationStrategy> strategies = new EnumMap<>(AllocationStrategy.class);
+    private final AllocationStrategy defaultStrategy;
+
+    private final Map<Long, LotShard> shards = new ConcurrentHashMap<>();
+
+    // Floors never move between lots, so this only grows
+    private final Map<Long, FloorLocation> floorLocations = new ConcurrentHashMap<>();
+    private final Map<Long, SpotAllocationStrategy> lotStrategies = new ConcurrentHashMap<>();
+
+    public FreeSpotAllocator(ParkingSpotRepository parkingSpotRepository,
+                             ParkingFloorRepository parkingFloorRepository,
+                             ParkingLotRepository parkingLotRepository,
+                             List<SpotAllocationStrategy> strategies,
+                             @Value("${parking.allocation.default-strategy:FIRST_FIT}") AllocationStrategy defaultStrategy) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.parkingFloorRepository = parkingFloorRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        strategies.forEach(strategy -> this.strategies.put(strategy.type(), strategy));
+        if (!this.strategies.containsKey(defaultStrategy)) {
+            throw new IllegalStateException("No SpotAllocationStrategy bean for default strategy " + defaultStrategy);
+        }
+        this.defaultStrategy = defaultStrategy;
+    }
+
+    public void seed() {
+        shards.clear();
+        lotStrategies.clear();
+        int seeded = loadFreeSpots();
+        log.info("Seeded free spot allocator with {} spots across {} lots", seeded, shards.size());
+    }
+
+    /**
+     * Loads the pool from a snapshot instead of the database. Candidates that
+     * went stale since are discarded by callers as usual.
+     */
+    public void restore(OccupancySnapshot snapshot) {
+        shards.clear();
+        int restored = 0;
+        for (OccupancySnapshot.FloorBitmap bitmap : snapshot.bitmaps()) {
+            floorLocations.put(bitmap.floorId(), new FloorLocation(bitmap.parkingLotId(), bitmap.floorNumber()));
+            FloorShard floor = shard(bitmap.parkingLotId()).floor(bitmap.floorId(), bitmap.floorNumber());
+            BitSet free = bitmap.free();
+            for (int i = free.nextSetBit(0); i >= 0; i = free.nextSetBit(i + 1)) {
+                floor.offer(bitmap.type(), bitmap.baseSpotId() + i);
+                restored++;
+            }
+        }
+        log.info("Restored free spot allocator with {} spots across {} lots", restored, shards.size());
+    }
+
+    /**
+     * Offers every spot the database reports as free without clearing the
+     * pool first, so it can run while gates are parking. Returns the number of
+     * those spots that were not already pooled. Concurrent polls and releases
+     * do not skew the count, since only offers that add a spot are counted.
+     */
+    public int verify() {
+        return loadFreeSpots();
+    }
+
+    // Returns how many spots were added, which after clearing the pool is every free spot
+    private int loadFreeSpots() {
+        for (Object[] row : parkingLotRepository.findAllocationStrategies()) {
+            assignStrategy((Long) row[0], (AllocationStrategy) row[1]);
+        }
+        int added = 0;
+        for (Object[] row : parkingSpotRepository.findAvailableSpotLocations()) {
+            FloorLocation location = new FloorLocation((Long) row[3], (Integer) row[4]);
+            floorLocations.put((Long) row[2], location);
+            if (shard(location.parkingLotId()).floor((Long) row[2], location.floorNumber())
+                    .offer((ParkingSpotType) row[1], (Long) row[0])) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the next free spot candidate for the request, or {@code null} if
+     * none is pooled. The requested floor is tried first, then the lot's
+     * strategy picks from the rest of the lot. Without a lot every shard is
+     * searched.
+     */
+    public Long poll(Long parkingLotId, AllocationContext context) {
+        if (parkingLotId != null) {
+            LotShard shard = shards.get(parkingLotId);
+            return shard != null ? poll(parkingLotId, shard, context) : null;
+        }
+        for (Map.Entry<Long, LotShard> entry : shards.entrySet()) {
+            Long spotId = poll(entry.getKey(), entry.getValue(), context);
+            if (spotId != null) {
+                return spotId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Polls each context in order and returns the first candidate found, so a
+     * spot-type fallback chain is resolved in one call.
+     */
+    public Long poll(Long parkingLotId, List<AllocationContext> chain) {
+        for (AllocationContext context : chain) {
+            Long spotId = poll(parkingLotId, context);
+            if (spotId != null) {
+                return spotId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the lot's strategy lets the request park there at all.
+     */
+    public boolean permits(Long parkingLotId, AllocationContext context) {
+        LotShard shard = shards.get(parkingLotId);
+        // A lot with nothing pooled is judged on an empty pool that is not kept
+        return strategyOf(parkingLotId).permits(shard != null ? shard : new LotShard(), context);
+    }
+
+    /**
+     * Whether the parking lot exists, answered from memory for lots seen before.
+     */
+    public boolean lotExists(Long parkingLotId) {
+        return findStrategy(parkingLotId).isPresent();
+    }
+
+    public void assignStrategy(Long parkingLotId, AllocationStrategy strategy) {
+        lotStrategies.put(parkingLotId, strategies.get(strategy != null ? strategy : defaultStrategy));
+    }
+
+    /**
+     * Resolves the lot a floor belongs to from the cache, loading it on a miss.
+     */
+    public Optional<Long> findLotOfFloor(Long floorId) {
+        return findLocation(floorId).map(FloorLocation::parkingLotId);
+    }
+
+    public Long lotOf(ParkingSpot spot) {
+        return location(spot.getFloor().getId()).parkingLotId();
+    }
+
+    public void release(ParkingSpot spot) {
+        release(spot.getFloor().getId(), spot.getType(), spot.getId());
+    }
+
+    public void releaseAfterCommit(ParkingSpot spot) {
+        // Resolve everything now, the entity may be detached by the time the callback runs
+        Long floorId = spot.getFloor().getId();
+        ParkingSpotType type = spot.getType();
+        Long spotId = spot.getId();
+        location(floorId);
+        TransactionCallbacks.afterCommit(() -> release(floorId, type, spotId));
+    }
+
+    public void releaseAfterCommit(ParkingFloor floor, ParkingSpotType type, Collection<Long> spotIds) {
+        Long floorId = floor.getId();
+        FloorLocation location = new FloorLocation(floor.getParkingLot().getId(), floor.getFloorNumber());
+        floorLocations.put(floorId, location);
+        TransactionCallbacks.afterCommit(() -> {
+            FloorShard pool = shard(location.parkingLotId()).floor(floorId, location.floorNumber());
+            spotIds.forEach(spotId -> pool.offer(type, spotId));
+        });
+    }
+
+    public void releaseOnRollback(ParkingSpot spot) {
+        Long floorId = spot.getFloor().getId();
+        ParkingSpotType type = spot.getType();
+        Long spotId = spot.getId();
+        location(floorId);
+        TransactionCallbacks.afterRollback(() -> release(floorId, type, spotId));
+    }
+
+    private Long poll(Long parkingLotId, LotShard shard, AllocationContext context) {
+        SpotAllocationStrategy strategy = strategyOf(parkingLotId);
+        if (!strategy.permits(shard, context)) {
+            return null;
+        }
+        if (context.preferredFloorId() != null) {
+            FloorShard preferred = shard.floors.get(context.preferredFloorId());
+            Long spotId = preferred != null ? preferred.poll(context.spotType()) : null;
+            if (spotId != null) {
+                return spotId;
+            }
+        }
+        return strategy.select(shard, context);
+    }
+
+    private SpotAllocationStrategy strategyOf(Long parkingLotId) {
+        Optional<SpotAllocationStrategy> found = findStrategy(parkingLotId);
+        if (found.isPresent()) {
+            return found.get();
+        }
+        SpotAllocationStrategy strategy = strategies.get(defaultStrategy);
+        // A pooled lot whose creation rolled back is already held in shards, so stop looking it up
+        if (shards.containsKey(parkingLotId)) {
+            lotStrategies.put(parkingLotId, strategy);
+        }
+        return strategy;
+    }
+
+    // Only lots that exist are remembered, so unknown ids never grow the map
+    private Optional<SpotAllocationStrategy> findStrategy(Long parkingLotId) {
+        SpotAllocationStrategy strategy = lotStrategies.get(parkingLotId);
+        if (strategy != null) {
+            return Optional.of(strategy);
+        }
+        Optional<SpotAllocationStrategy> found = parkingLotRepository.findById(parkingLotId)
+                .map(lot -> strategies.get(lot.getAllocationStrategy() != null
+                        ? lot.getAllocationStrategy() : defaultStrategy));
+        found.ifPresent(loaded -> lotStrategies.put(parkingLotId, loaded));
+        return found;
+    }
+
+    private void release(Long floorId, ParkingSpotType type, Long spotId) {
+        FloorLocation location = location(floorId);
+        shard(location.parkingLotId()).floor(floorId, location.floorNumber()).offer(type, spotId);
+    }
+
+    private Optional<FloorLocation> findLocation(Long floorId) {
+        FloorLocation location = floorLocations.get(floorId);
+        if (location != null) {
+            return Optional.of(location);
+        }
+        Optional<FloorLocation> found = parkingFloorRepository.findById(floorId)
+                .map(floor -> new FloorLocation(floor.getParkingLot().getId(), floor.getFloorNumber()));
+        found.ifPresent(loaded -> floorLocations.put(floorId, loaded));
+        return found;
+    }
+
+    private FloorLocation location(Long floorId) {
+        return findLocation(floorId)
+                .orElseThrow(() -> new IllegalStateException("Parking floor " + floorId + " has no parking lot"));
+    }
+
+    private LotShard shard(Long parkingLotId) {
+        return shards.computeIfAbsent(parkingLotId, id -> new LotShard());
+    }
+
+    private record FloorLocation(Long parkingLotId, int floorNumber) {
+    }
+
+    private static final class LotShard implements LotPool {
+
+        private final Map<Long, FloorShard> floors = new ConcurrentHashMap<>();
+
+        // Rebuilt only when a floor appears, so strategies read them without sorting or locking
+        private volatile List<FloorPool> byId = List.of();
+        private volatile List<FloorPool> byLevel = List.of();
+
+        FloorShard floor(Long floorId, int floorNumber) {
+            FloorShard floor = floors.get(floorId);
+            return floor != null ? floor : addFloor(floorId, floorNumber);
+        }
+
+        private synchronized FloorShard addFloor(Long floorId, int floorNumber) {
+            FloorShard floor = floors.get(floorId);
+            if (floor == null) {
+                floor = new FloorShard(floorId, floorNumber);
+                floors.put(floorId, floor);
+                List<FloorPool> sorted = new ArrayList<>(floors.values());
+                sorted.sort(Comparator.comparing(FloorPool::floorId));
+                byId = List.copyOf(sorted);
+                sorted.sort(BY_LEVEL);
+                byLevel = List.copyOf(sorted);
+            }
+            return floor;
+        }
+
+        @Override
+        public List<FloorPool> floors() {
+            return byId;
+        }
+
+        @Override
+        public List<FloorPool> floorsByLevel() {
+            return byLevel;
+        }
+
+        @Override
+        public long free(ParkingSpotType type) {
+            long free = 0;
+            for (FloorPool floor : byId) {
+                free += floor.free(type);
+            }
+            return free;
+        }
+    }
+
+    private static final class FloorShard implements FloorPool {
+
+        private final Long floorId;
+        private final int floorNumber;
+        private final Map<ParkingSpotType, NavigableSet<Long>> pools = new EnumMap<>(ParkingSpotType.class);
+        // ConcurrentSkipListSet.size() walks the set, so sizes are tracked alongside
+        private final Map<ParkingSpotType, AtomicInteger> sizes = new EnumMap<>(ParkingSpotType.class);
+
+        FloorShard(Long floorId, int floorNumber) {
+            this.floorId = floorId;
+            this.floorNumber = floorNumber;
+            for (ParkingSpotType type : ParkingSpotType.values()) {
+                pools.put(type, new ConcurrentSkipListSet<>());
+                sizes.put(type, new AtomicInteger());
+            }
+        }
+
+        boolean offer(ParkingSpotType type, Long spotId) {
+            if (pools.get(type).add(spotId)) {
+                sizes.get(type).incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Long floorId() {
+            return floorId;
+        }
+
+        @Override
+        public int floorNumber() {
+            return floorNumber;
+        }
+
+        @Override
+        public int free(ParkingSpotType type) {
+            return Math.max(0, sizes.get(type).get());
+        }
+
+        @Override
+        public Long poll(ParkingSpotType type) {
+            Long spotId = pools.get(type).pollFirst();
+            if (spotId != null) {
+                sizes.get(type).decrementAndGet();
+            }
+            return spotId;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.yuvraj.parking_lot.occupancy;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Free spot counters per parking lot and {@link ParkingSpotType}, the in-memory
+ * equivalent of {@code freeCompactSpotCount}, {@code freeHandicappedSpotCount}
+ * and friends.
+ * <p>
+ * Counters are adjusted as soon as a park, exit or add-spot call changes a spot
+ * and the adjustment is undone if that transaction rolls back. Alongside them,
+ * committed counters only take a change once its transaction commits, for
+ * consumers that must never see a change that may still roll back. Bulk
+ * imports are counted once each chunk commits. All counters are seeded from
+ * the database or an {@link OccupancySnapshot} at startup and periodically
+ * checked against it to correct drift from writes that bypass the service
+ * layer. A lot's availability is read from its own counters; deployment-wide
+ * figures are summed across lots.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancyCounters {
+
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    private final Map<Long, Map<ParkingSpotType, AtomicLong>> freeSpotCounts = new ConcurrentHashMap<>();
+    private final Map<Long, Map<ParkingSpotType, AtomicLong>> committedFreeSpotCounts = new ConcurrentHashMap<>();
+    // Differences seen by the previous drift check, confirmed or dropped by the next one
+    private Map<Long, Map<ParkingSpotType, Long>> suspectedDrift = Map.of();
+
+    // Bumped on every change to any counter, and per lot
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, AtomicLong> lotVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Sets every counter to the database's free counts. Adjustments made by
+     * transactions in flight would be lost or counted twice, so this is only
+     * for quiescent points such as startup; running gates use
+     * {@link #correctDrift()}.
+     */
+    public synchronized void reconcile() {
+        restore(countFreeSpots());
+        suspectedDrift = Map.of();
+    }
+
+    /**
+     * Compares the committed counters with the database and corrects a
+     * difference once two consecutive checks find the same one. A transaction
+     * that commits between reading the database and the counters only shows up
+     * in one check. Corrections are added to the counters rather than
+     * overwriting them, so changes made in the meantime are kept.
+     */
+    @Scheduled(fixedDelayString = "${parking.occupancy.reconcile-interval:PT1M}",
+            initialDelayString = "${parking.occupancy.reconcile-interval:PT1M}")
+    public synchronized void correctDrift() {
+        Map<Long, Map<ParkingSpotType, Long>> counts = countFreeSpots();
+        counts.keySet().forEach(this::lotCounters);
+        Map<Long, Map<ParkingSpotType, Long>> drift = new HashMap<>();
+        committedFreeSpotCounts.forEach((lotId, committedCounters) -> {
+            Map<ParkingSpotType, Long> lotCounts = counts.getOrDefault(lotId, Map.of());
+            Map<ParkingSpotType, Long> previous = suspectedDrift.getOrDefault(lotId, Map.of());
+            committedCounters.forEach((type, committed) -> {
+                long difference = lotCounts.getOrDefault(type, 0L) - committed.get();
+                if (difference == 0) {
+                    return;
+                }
+                if (previous.getOrDefault(type, 0L) == difference) {
+                    committed.addAndGet(difference);
+                    lotCounters(lotId).get(type).addAndGet(difference);
+                    changed(lotId);
+                    log.warn("Corrected free {} spot counter of parking lot {} by {} to match the database",
+                            type, lotId, difference);
+                } else {
+                    drift.computeIfAbsent(lotId, id -> new EnumMap<>(ParkingSpotType.class)).put(type, difference);
+                }
+            });
+        });
+        suspectedDrift = drift;
+    }
+
+    private Map<Long, Map<ParkingSpotType, Long>> countFreeSpots() {
+        Map<Long, Map<ParkingSpotType, Long>> counts = new HashMap<>();
+        for (Object[] row : parkingSpotRepository.countAvailableSpotsByLotAndType()) {
+            counts.computeIfAbsent((Long) row[0], lotId -> new EnumMap<>(ParkingSpotType.class))
+                    .put((ParkingSpotType) row[1], (Long) row[2]);
+        }
+        return counts;
+    }
+
+    /**
+     * Sets every lot's counters to the given free counts, zeroing lots and
+     * types that are absent.
+     */
+    public void restore(Map<Long, Map<ParkingSpotType, Long>> counts) {
+        counts.keySet().forEach(this::lotCounters);
+        freeSpotCounts.forEach((lotId, counters) -> {
+            Map<ParkingSpotType, Long> lotCounts = counts.getOrDefault(lotId, Map.of());
+            Map<ParkingSpotType, AtomicLong> committedCounters = committedFreeSpotCounts.get(lotId);
+            counters.forEach((type, counter) -> {
+                long count = lotCounts.getOrDefault(type, 0L);
+                committedCounters.get(type).set(count);
+                if (counter.getAndSet(count) != count) {
+                    changed(lotId);
+                }
+            });
+        });
+    }
+
+    public void spotClaimed(Long parkingLotId, ParkingSpotType type) {
+        adjust(parkingLotId, type, -1);
+    }
+
+    public void spotReleased(Long parkingLotId, ParkingSpotType type) {
+        adjust(parkingLotId, type, 1);
+    }
+
+    /**
+     * Counts spots added by the current transaction once it commits, so a
+     * rolled-back import never shows up as free spots.
+     */
+    public void spotsAddedAfterCommit(Long parkingLotId, ParkingSpotType type, long count) {
+        TransactionCallbacks.afterCommit(() -> {
+            lotCounters(parkingLotId).get(type).addAndGet(count);
+            committedFreeSpotCounts.get(parkingLotId).get(type).addAndGet(count);
+            changed(parkingLotId);
+        });
+    }
+
+    public long getFreeCount(ParkingSpotType type) {
+        return sum(freeSpotCounts, type);
+    }
+
+    public long getFreeCount(Long parkingLotId, ParkingSpotType type) {
+        Map<ParkingSpotType, AtomicLong> counters = freeSpotCounts.get(parkingLotId);
+        return counters != null ? Math.max(0, counters.get(type).get()) : 0;
+    }
+
+    /**
+     * Increases whenever any lot's occupancy changes, including once more when
+     * the changing transaction completes.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getVersion(Long parkingLotId) {
+        AtomicLong lotVersion = lotVersions.get(parkingLotId);
+        return lotVersion != null ? lotVersion.get() : 0;
+    }
+
+    public Map<ParkingSpotType, Long> snapshot() {
+        Map<ParkingSpotType, Long> counts = new EnumMap<>(ParkingSpotType.class);
+        for (ParkingSpotType type : ParkingSpotType.values()) {
+            counts.put(type, getFreeCount(type));
+        }
+        return counts;
+    }
+
+    public Map<ParkingSpotType, Long> snapshot(Long parkingLotId) {
+        Map<ParkingSpotType, Long> counts = new EnumMap<>(ParkingSpotType.class);
+        for (ParkingSpotType type : ParkingSpotType.values()) {
+            counts.put(type, getFreeCount(parkingLotId, type));
+        }
+        return counts;
+    }
+
+    /**
+     * Free counts across all lots as of the last committed change, leaving out
+     * transactions still in flight.
+     */
+    public Map<ParkingSpotType, Long> committedSnapshot() {
+        Map<ParkingSpotType, Long> counts = new EnumMap<>(ParkingSpotType.class);
+        for (ParkingSpotType type : ParkingSpotType.values()) {
+            counts.put(type, sum(committedFreeSpotCounts, type));
+        }
+        return counts;
+    }
+
+    private void adjust(Long parkingLotId, ParkingSpotType type, long delta) {
+        AtomicLong counter = lotCounters(parkingLotId).get(type);
+        AtomicLong committed = committedFreeSpotCounts.get(parkingLotId).get(type);
+        counter.addAndGet(delta);
+        changed(parkingLotId);
+        TransactionCallbacks.afterRollback(() -> counter.addAndGet(-delta));
+        TransactionCallbacks.afterCommit(() -> committed.addAndGet(delta));
+        // Database-backed views only see the change once committed, so bump again then
+        TransactionCallbacks.afterCompletion(() -> changed(parkingLotId));
+    }
+
+    private void changed(Long parkingLotId) {
+        lotVersions.computeIfAbsent(parkingLotId, id -> new AtomicLong()).incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    private Map<ParkingSpotType, AtomicLong> lotCounters(Long parkingLotId) {
+        Map<ParkingSpotType, AtomicLong> counters = freeSpotCounts.get(parkingLotId);
+        if (counters != null) {
+            return counters;
+        }
+        // Committed counters first, so a lot with live counters always has them too
+        committedFreeSpotCounts.computeIfAbsent(parkingLotId, id -> createCounters());
+        return freeSpotCounts.computeIfAbsent(parkingLotId, id -> createCounters());
+    }
+
+    private static long sum(Map<Long, Map<ParkingSpotType, AtomicLong>> countsByLot, ParkingSpotType type) {
+        long free = 0;
+        for (Map<ParkingSpotType, AtomicLong> counters : countsByLot.values()) {
+            free += Math.max(0, counters.get(type).get());
+        }
+        return free;
+    }
+
+    private static Map<ParkingSpotType, AtomicLong> createCounters() {
+        Map<ParkingSpotType, AtomicLong> counters = new EnumMap<>(ParkingSpotType.class);
+        for (ParkingSpotType type : ParkingSpotType.values()) {
+            counters.put(type, new AtomicLong());
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,224 @@
+package com.yuvraj.parking_lot.occupancy;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.journal.JournalEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Spot occupancy at one point of the occupancy journal, as two bitmaps per
+ * floor and {@link ParkingSpotType}: the spots that exist and the ones that are
+ * free, each bit standing for {@code baseSpotId + index}. Spot IDs are handed
+ * out in sequence blocks, so a floor's spots of one type are close to dense and
+ * 100,000 spots fit in a few tens of kilobytes.
+ * <p>
+ * Journal events after {@link #journalSequence()} are applied on top with
+ * {@link #apply(JournalEvent)} to bring the snapshot up to date.
+ */
+public final class OccupancySnapshot {
+
+    private static final int MAGIC = 0x4F43534E;
+    private static final short VERSION = 1;
+
+    public record FloorBitmap(long parkingLotId, long floorId, int floorNumber, ParkingSpotType type,
+                              long baseSpotId, BitSet spots, BitSet free) {
+
+        boolean contains(long spotId) {
+            long index = spotId - baseSpotId;
+            return index >= 0 && index < Integer.MAX_VALUE && spots.get((int) index);
+        }
+
+        void setFree(long spotId, boolean isFree) {
+            free.set((int) (spotId - baseSpotId), isFree);
+        }
+    }
+
+    private final long journalSequence;
+    private final long createdAt;
+    private final List<FloorBitmap> bitmaps;
+
+    private OccupancySnapshot(long journalSequence, long createdAt, List<FloorBitmap> bitmaps) {
+        this.journalSequence = journalSequence;
+        this.createdAt = createdAt;
+        this.bitmaps = bitmaps;
+    }
+
+    /**
+     * Builds a snapshot from rows of (spot ID, type, floor ID, lot ID, floor
+     * number, occupied), ordered by floor, type and spot ID.
+     */
+    public static OccupancySnapshot fromSpotLocations(long journalSequence, List<Object[]> rows) {
+        List<FloorBitmap> bitmaps = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i == rows.size() || !sameGroup(rows.get(start), rows.get(i))) {
+                bitmaps.add(toBitmap(rows.subList(start, i)));
+                start = i;
+            }
+        }
+        return new OccupancySnapshot(journalSequence, System.currentTimeMillis(), bitmaps);
+    }
+
+    public long journalSequence() {
+        return journalSequence;
+    }
+
+    public long createdAt() {
+        return createdAt;
+    }
+
+    public List<FloorBitmap> bitmaps() {
+        return bitmaps;
+    }
+
+    /**
+     * Applies a journal event to the free bitmaps. Returns {@code false} if the
+     * event does not touch a spot in the snapshot, e.g. one added later.
+     */
+    public boolean apply(JournalEvent event) {
+        if (event.spotId() == null) {
+            return false;
+        }
+        Boolean isFree = switch (event.type()) {
+            case PARK, RESERVE -> false;
+            case EXIT, RESERVATION_CANCELLED, RESERVATION_EXPIRED -> true;
+            // The held spot passes straight to the parked vehicle
+            case RESERVATION_FULFILLED -> null;
+        };
+        if (isFree == null) {
+            return true;
+        }
+        for (FloorBitmap bitmap : bitmaps) {
+            if (bitmap.type() == event.spotType() && bitmap.contains(event.spotId())) {
+                bitmap.setFree(event.spotId(), isFree);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<Long, Map<ParkingSpotType, Long>> freeCounts() {
+        Map<Long, Map<ParkingSpotType, Long>> counts = new HashMap<>();
+        for (FloorBitmap bitmap : bitmaps) {
+            counts.computeIfAbsent(bitmap.parkingLotId(), lotId -> new EnumMap<>(ParkingSpotType.class))
+                    .merge(bitmap.type(), (long) bitmap.free().cardinality(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Writes the snapshot next to {@code file} and moves it into place, so a
+     * crash mid-write leaves the previous snapshot intact.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)), crc))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(journalSequence);
+                out.writeLong(createdAt);
+                out.writeInt(bitmaps.size());
+                for (FloorBitmap bitmap : bitmaps) {
+                    out.writeLong(bitmap.parkingLotId());
+                    out.writeLong(bitmap.floorId());
+                    out.writeInt(bitmap.floorNumber());
+                    out.writeByte(bitmap.type().ordinal());
+                    out.writeLong(bitmap.baseSpotId());
+                    writeBits(out, bitmap.spots());
+                    writeBits(out, bitmap.free());
+                }
+                out.flush();
+                // Covers every byte above
+                out.writeInt((int) crc.getValue());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads a snapshot, failing with {@link IOException} if the file is
+     * truncated, corrupt or of another format version.
+     */
+    public static OccupancySnapshot readFrom(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException("Not an occupancy snapshot of version " + VERSION + ": " + file);
+            }
+            long journalSequence = in.readLong();
+            long createdAt = in.readLong();
+            int count = in.readInt();
+            List<FloorBitmap> bitmaps = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                bitmaps.add(new FloorBitmap(in.readLong(), in.readLong(), in.readInt(),
+                        ParkingSpotType.values()[in.readByte()], in.readLong(), readBits(in), readBits(in)));
+            }
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected) {
+                throw new IOException("Occupancy snapshot checksum mismatch: " + file);
+            }
+            return new OccupancySnapshot(journalSequence, createdAt, bitmaps);
+        }
+    }
+
+    private static boolean sameGroup(Object[] a, Object[] b) {
+        return a[2].equals(b[2]) && a[1] == b[1];
+    }
+
+    private static FloorBitmap toBitmap(List<Object[]> rows) {
+        Object[] first = rows.get(0);
+        long base = (Long) first[0];
+        BitSet spots = new BitSet();
+        BitSet free = new BitSet();
+        for (Object[] row : rows) {
+            int index = Math.toIntExact((Long) row[0] - base);
+            spots.set(index);
+            if (!(Boolean) row[5]) {
+                free.set(index);
+            }
+        }
+        return new FloorBitmap((Long) first[3], (Long) first[2], (Integer) first[4], (ParkingSpotType) first[1],
+                base, spots, free);
+    }
+
+    private static void writeBits(DataOutputStream out, BitSet bits) throws IOException {
+        long[] words = bits.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    private static BitSet readBits(DataInputStream in) throws IOException {
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return BitSet.valueOf(words);
+    }
+}
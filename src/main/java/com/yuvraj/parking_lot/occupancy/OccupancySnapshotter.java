@@ -0,0 +1,162 @@
+package com.yuvraj.parking_lot.occupancy;
+
+import com.yuvraj.parking_lot.journal.JournalEvent;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Warm start for the {@link FreeSpotAllocator} and {@link OccupancyCounters}.
+ * <p>
+ * An {@link OccupancySnapshot} is written periodically and on shutdown. At
+ * startup the latest snapshot is loaded, the {@link OccupancyJournal} events
+ * written after it are replayed on top, and both are restored from the result
+ * without reading a spot row. The database is then checked in the background:
+ * free spots missing from the pool are added and counter drift is corrected.
+ * Without a usable snapshot, or a journal that covers it, both are seeded from
+ * the database as before.
+ */
+@Slf4j
+@Component
+public class OccupancySnapshotter {
+
+    private static final int REPLAY_PAGE_SIZE = 10_000;
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final FreeSpotAllocator freeSpotAllocator;
+    private final OccupancyCounters occupancyCounters;
+    private final OccupancyJournal occupancyJournal;
+    private final Path snapshotFile;
+    private final boolean enabled;
+
+    public OccupancySnapshotter(ParkingSpotRepository parkingSpotRepository,
+                                FreeSpotAllocator freeSpotAllocator,
+                                OccupancyCounters occupancyCounters,
+                                OccupancyJournal occupancyJournal,
+                                @Value("${parking.snapshot.file:journal/occupancy.snapshot}") Path snapshotFile,
+                                @Value("${parking.snapshot.enabled:true}") boolean enabled) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.freeSpotAllocator = freeSpotAllocator;
+        this.occupancyCounters = occupancyCounters;
+        this.occupancyJournal = occupancyJournal;
+        this.snapshotFile = snapshotFile;
+        this.enabled = enabled && occupancyJournal.isEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        if (enabled && restore(snapshotFile)) {
+            CompletableFuture.runAsync(this::verify)
+                    .exceptionally(ex -> {
+                        log.error("Background occupancy verification failed", ex);
+                        return null;
+                    });
+            return;
+        }
+        freeSpotAllocator.seed();
+        occupancyCounters.reconcile();
+    }
+
+    /**
+     * Restores occupancy from a snapshot plus the journal events written after
+     * it. Returns {@code false}, leaving the current state untouched, if the
+     * snapshot is missing or unreadable or the journal no longer reaches back
+     * to it.
+     */
+    public boolean restore(Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        long started = System.nanoTime();
+        OccupancySnapshot snapshot;
+        try {
+            snapshot = OccupancySnapshot.readFrom(file);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable occupancy snapshot {}", file, ex);
+            return false;
+        }
+
+        long replayed = replay(snapshot);
+        if (replayed < 0) {
+            log.warn("Journal does not continue from occupancy snapshot at sequence {}, ignoring it",
+                    snapshot.journalSequence());
+            return false;
+        }
+        freeSpotAllocator.restore(snapshot);
+        occupancyCounters.restore(snapshot.freeCounts());
+        log.info("Restored occupancy from snapshot at sequence {} plus {} journal events in {} ms",
+                snapshot.journalSequence(), replayed, (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Tops the pool up with every free spot in the database and corrects the
+     * counters, fixing anything the snapshot and journal missed. Gates may
+     * already be running, so drift is checked twice rather than overwritten.
+     */
+    public void verify() {
+        int missing = freeSpotAllocator.verify();
+        occupancyCounters.correctDrift();
+        occupancyCounters.correctDrift();
+        log.info("Verified restored occupancy against the database, {} free spots were missing", missing);
+    }
+
+    @Scheduled(fixedDelayString = "${parking.snapshot.interval:PT5M}",
+            initialDelayString = "${parking.snapshot.interval:PT5M}")
+    public void writeSnapshot() {
+        if (enabled) {
+            write(snapshotFile);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void writeSnapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    /**
+     * Writes a snapshot of the database's spot occupancy. The journal position
+     * is read first, so every change the spot query might miss is replayed.
+     */
+    public void write(Path file) {
+        long sequence = occupancyJournal.getLastSequence();
+        OccupancySnapshot snapshot = OccupancySnapshot.fromSpotLocations(sequence,
+                parkingSpotRepository.findSpotLocations());
+        try {
+            snapshot.writeTo(file);
+            log.debug("Wrote occupancy snapshot at sequence {} to {}", sequence, file);
+        } catch (IOException ex) {
+            log.warn("Failed to write occupancy snapshot {}", file, ex);
+        }
+    }
+
+    private long replay(OccupancySnapshot snapshot) {
+        long after = snapshot.journalSequence();
+        if (after > occupancyJournal.getLastSequence()) {
+            return -1;
+        }
+        long replayed = 0;
+        while (after < occupancyJournal.getLastSequence()) {
+            List<JournalEvent> events = occupancyJournal.read(after, REPLAY_PAGE_SIZE);
+            if (events.isEmpty() || events.get(0).sequence() != after + 1) {
+                return -1;
+            }
+            events.forEach(snapshot::apply);
+            replayed += events.size();
+            after = events.get(events.size() - 1).sequence();
+        }
+        return replayed;
+    }
+}
@@ -2,6 +2,8 @@ package com.yuvraj.parking_lot.repository;
 
 import com.yuvraj.parking_lot.entity.ParkingFloor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +11,14 @@ import java.util.List;
 @Repository
 public interface ParkingFloorRepository extends JpaRepository<ParkingFloor, Long> {
 
+    // One row per floor and spot type: id, floor number, lot id, lot name, spot type, spots, occupied spots
+    String SUMMARY_SELECT = "SELECT f.id, f.floorNumber, l.id, l.name, "
+            + "s.type, COUNT(s), SUM(CASE WHEN s.isOccupied = true THEN 1 ELSE 0 END) "
+            + "FROM ParkingFloor f JOIN f.parkingLot l LEFT JOIN f.spots s ";
+    String SUMMARY_GROUP_BY = " GROUP BY f.id, f.floorNumber, l.id, l.name, s.type ORDER BY f.id";
+
     List<ParkingFloor> findByParkingLotId(Long parkingLotId);
+
+    @Query(SUMMARY_SELECT + "WHERE l.id = :parkingLotId" + SUMMARY_GROUP_BY)
+    List<Object[]> findSummariesByParkingLotId(@Param("parkingLotId") Long parkingLotId);
 }
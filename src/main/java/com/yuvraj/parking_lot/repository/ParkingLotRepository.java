@@ -2,8 +2,24 @@ package com.yuvraj.parking_lot.repository;
 
 import com.yuvraj.parking_lot.entity.ParkingLot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ParkingLotRepository extends JpaRepository<ParkingLot, Long> {
+
+    // One row per lot and spot type: id, name, address, allocation strategy, floor count, spot type, spots, occupied spots
+    String SUMMARY_SELECT = "SELECT l.id, l.name, l.address, l.allocationStrategy, "
+            + "(SELECT COUNT(f2) FROM ParkingFloor f2 WHERE f2.parkingLot.id = l.id), "
+            + "s.type, COUNT(s), SUM(CASE WHEN s.isOccupied = true THEN 1 ELSE 0 END) "
+            + "FROM ParkingLot l LEFT JOIN l.floors f LEFT JOIN f.spots s ";
+    String SUMMARY_GROUP_BY = " GROUP BY l.id, l.name, l.address, l.allocationStrategy, s.type ORDER BY l.id";
+
+    @Query(SUMMARY_SELECT + SUMMARY_GROUP_BY)
+    List<Object[]> findAllSummaries();
+
+    @Query("SELECT l.id, l.allocationStrategy FROM ParkingLot l")
+    List<Object[]> findAllocationStrategies();
 }
@@ -0,0 +1,13 @@
+package com.yuvraj.parking_lot.repository;
+
+import com.yuvraj.parking_lot.entity.ParkingSessionHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ParkingSessionHistoryRepository extends JpaRepository<ParkingSessionHistory, Long> {
+
+    List<ParkingSessionHistory> findByLicensePlateOrderByExitTimeDesc(String licensePlate);
+}
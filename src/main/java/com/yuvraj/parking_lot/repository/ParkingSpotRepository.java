@@ -1,28 +1,85 @@
 package com.yuvraj.parking_lot.repository;
 
+import com.yuvraj.parking_lot.dto.ParkingSpotResponse;
 import com.yuvraj.parking_lot.entity.ParkingSpot;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long> {
 
-    List<ParkingSpot> findByFloorId(Long floorId);
+    // Hibernate renders a lock timeout of -2 as SKIP LOCKED where the dialect supports it
+    String SKIP_LOCKED = "-2";
 
-    List<ParkingSpot> findByTypeAndIsOccupiedFalse(ParkingSpotType type);
+    List<ParkingSpot> findByFloorId(Long floorId);
 
     Optional<ParkingSpot> findFirstByTypeAndIsOccupiedFalse(ParkingSpotType type);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    List<ParkingSpot> findByIdInAndIsOccupiedFalse(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    List<ParkingSpot> findByTypeAndIsOccupiedFalseOrderByIdAsc(ParkingSpotType type, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    List<ParkingSpot> findByTypeAndIsOccupiedFalseAndFloorIdOrderByIdAsc(ParkingSpotType type, Long floorId, Pageable pageable);
+
+    // Filtered through a subquery rather than a join so only parking_spot rows are locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT s FROM ParkingSpot s WHERE s.type = :type AND s.isOccupied = false "
+            + "AND s.floor.id IN (SELECT f.id FROM ParkingFloor f WHERE f.parkingLot.id = :parkingLotId) ORDER BY s.id")
+    List<ParkingSpot> findAvailableInLot(@Param("type") ParkingSpotType type, @Param("parkingLotId") Long parkingLotId,
+                                         Pageable pageable);
+
+    // Keyset pages projected straight into the response, joining the floor once instead of per spot
+    @Query("SELECT new com.yuvraj.parking_lot.dto.ParkingSpotResponse(s.id, s.spotNumber, s.type, s.isOccupied, f.id, f.floorNumber) "
+            + "FROM ParkingSpot s JOIN s.floor f WHERE f.id = :floorId AND s.id > :afterId ORDER BY s.id")
+    List<ParkingSpotResponse> findPageByFloorId(@Param("floorId") Long floorId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT new com.yuvraj.parking_lot.dto.ParkingSpotResponse(s.id, s.spotNumber, s.type, s.isOccupied, f.id, f.floorNumber) "
+            + "FROM ParkingSpot s JOIN s.floor f WHERE s.type = :type AND s.isOccupied = false AND s.id > :afterId ORDER BY s.id")
+    List<ParkingSpotResponse> findAvailablePageByType(@Param("type") ParkingSpotType type, @Param("afterId") Long afterId,
+                                                      Limit limit);
+
     long countByTypeAndIsOccupiedFalse(ParkingSpotType type);
 
-    @Query("SELECT s.type, COUNT(s) FROM ParkingSpot s WHERE s.isOccupied = false GROUP BY s.type")
-    List<Object[]> countAvailableSpotsByType();
+    @Query("SELECT f.parkingLot.id, s.type, COUNT(s) FROM ParkingSpot s JOIN s.floor f "
+            + "WHERE s.isOccupied = false GROUP BY f.parkingLot.id, s.type")
+    List<Object[]> countAvailableSpotsByLotAndType();
 
     List<ParkingSpot> findByIsOccupiedFalse();
+
+    @Query("SELECT s.floor.id, COUNT(s), SUM(CASE WHEN s.isOccupied = true THEN 1 ELSE 0 END) "
+            + "FROM ParkingSpot s GROUP BY s.floor.id")
+    List<Object[]> countSpotsByFloor();
+
+    // One row per spot type on the given floors: spot type, spots, occupied spots
+    @Query("SELECT s.type, COUNT(s), SUM(CASE WHEN s.isOccupied = true THEN 1 ELSE 0 END) "
+            + "FROM ParkingSpot s WHERE s.floor.id IN :floorIds GROUP BY s.type")
+    List<Object[]> countSpotsByTypeOnFloors(@Param("floorIds") Collection<Long> floorIds);
+
+    @Query("SELECT s.id, s.type, f.id, f.parkingLot.id, f.floorNumber FROM ParkingSpot s JOIN s.floor f "
+            + "WHERE s.isOccupied = false")
+    List<Object[]> findAvailableSpotLocations();
+
+    @Query("SELECT s.id, s.type, f.id, f.parkingLot.id, f.floorNumber, s.isOccupied FROM ParkingSpot s JOIN s.floor f "
+            + "ORDER BY f.id, s.type, s.id")
+    List<Object[]> findSpotLocations();
 }
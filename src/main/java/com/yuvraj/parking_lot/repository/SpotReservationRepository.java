@@ -0,0 +1,33 @@
+package com.yuvraj.parking_lot.repository;
+
+import com.yuvraj.parking_lot.entity.SpotReservation;
+import com.yuvraj.parking_lot.entity.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpotReservationRepository extends JpaRepository<SpotReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM SpotReservation r WHERE r.id = :id")
+    Optional<SpotReservation> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = "spot")
+    List<SpotReservation> findByIdInAndStatus(Collection<Long> ids, ReservationStatus status);
+
+    boolean existsByLicensePlateAndStatus(String licensePlate, ReservationStatus status);
+
+    // Rows of id, expires at
+    @Query("SELECT r.id, r.expiresAt FROM SpotReservation r WHERE r.status = :status")
+    List<Object[]> findExpiriesByStatus(@Param("status") ReservationStatus status);
+}
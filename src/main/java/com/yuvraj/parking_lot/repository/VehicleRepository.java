@@ -1,15 +1,26 @@
 package com.yuvraj.parking_lot.repository;
 
 import com.yuvraj.parking_lot.entity.Vehicle;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
-    Optional<Vehicle> findByLicensePlateAndExitTimeIsNull(String licensePlate);
+    Optional<Vehicle> findByLicensePlate(String licensePlate);
 
-    boolean existsByLicensePlateAndExitTimeIsNull(String licensePlate);
+    @Query("SELECT v.licensePlate, v.id, s.id FROM Vehicle v LEFT JOIN v.parkingSpot s")
+    List<Object[]> findActiveSessions();
+
+    @EntityGraph(attributePaths = "parkingSpot")
+    List<Vehicle> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "parkingSpot")
+    List<Vehicle> findByLicensePlateIn(Collection<String> licensePlates);
 }
@@ -0,0 +1,117 @@
+package com.yuvraj.parking_lot.reservation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel (Varghese and Lauck) keyed by an arbitrary ID.
+ * <p>
+ * Time is cut into ticks of {@code tickMillis}, and a deadline lands in bucket
+ * {@code tick % wheelSize}. Scheduling and cancelling are O(1). Advancing by
+ * one tick only visits that tick's bucket, so its cost is the number of
+ * entries in the bucket, not the number of pending deadlines. Deadlines more
+ * than one rotation away stay in their bucket until the rotation that is due.
+ * Cancelled entries are dropped lazily when their bucket is next visited.
+ * <p>
+ * All methods are synchronized; each holds the lock for O(1) work, apart from
+ * {@link #advance} visiting the buckets that are due.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final List<ArrayDeque<Entry<T>>> buckets;
+    private final Map<T, Entry<T>> pending = new HashMap<>();
+
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Schedules {@code key} to fire at {@code deadlineMillis}, replacing any
+     * earlier schedule for the same key. Deadlines in the past fire on the
+     * next advance.
+     */
+    public synchronized void schedule(T key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis - startMillis, tickMillis), currentTick + 1);
+        Entry<T> entry = new Entry<>(key, deadlineTick);
+        pending.put(key, entry);
+        buckets.get(bucketOf(deadlineTick)).add(entry);
+    }
+
+    public synchronized boolean cancel(T key) {
+        Entry<T> entry = pending.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns every key whose deadline
+     * has passed, in bucket order. A long pause visits each bucket at most once.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>();
+        long lastTick = Math.min(targetTick, currentTick + buckets.size());
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            Iterator<Entry<T>> entries = buckets.get(bucketOf(tick)).iterator();
+            while (entries.hasNext()) {
+                Entry<T> entry = entries.next();
+                if (entry.cancelled) {
+                    entries.remove();
+                } else if (entry.deadlineTick <= targetTick) {
+                    entries.remove();
+                    pending.remove(entry.key);
+                    expired.add(entry.key);
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, buckets.size());
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+
+    private static final class Entry<T> {
+
+        private final T key;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        Entry(T key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
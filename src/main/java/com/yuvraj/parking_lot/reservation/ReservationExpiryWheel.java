@@ -0,0 +1,67 @@
+package com.yuvraj.parking_lot.reservation;
+
+import com.yuvraj.parking_lot.entity.enums.ReservationStatus;
+import com.yuvraj.parking_lot.occupancy.TransactionCallbacks;
+import com.yuvraj.parking_lot.repository.SpotReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Tracks when each active reservation expires, so expiry never has to scan
+ * the reservation table. The wheel is rebuilt from the database at startup
+ * and then kept in step with committed reservation changes.
+ */
+@Slf4j
+@Component
+public class ReservationExpiryWheel {
+
+    private final SpotReservationRepository spotReservationRepository;
+    private final HashedTimingWheel<Long> wheel;
+
+    public ReservationExpiryWheel(SpotReservationRepository spotReservationRepository,
+                                  @Value("${parking.reservation.tick:PT1S}") Duration tick,
+                                  @Value("${parking.reservation.wheel-size:512}") int wheelSize) {
+        this.spotReservationRepository = spotReservationRepository;
+        this.wheel = new HashedTimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = spotReservationRepository.findExpiriesByStatus(ReservationStatus.ACTIVE);
+        for (Object[] row : rows) {
+            schedule((Long) row[0], (LocalDateTime) row[1]);
+        }
+        log.info("Rebuilt reservation expiry wheel with {} active holds", rows.size());
+    }
+
+    public void scheduleAfterCommit(Long reservationId, LocalDateTime expiresAt) {
+        TransactionCallbacks.afterCommit(() -> schedule(reservationId, expiresAt));
+    }
+
+    public void cancelAfterCommit(Long reservationId) {
+        TransactionCallbacks.afterCommit(() -> wheel.cancel(reservationId));
+    }
+
+    /**
+     * Returns the reservations whose hold has run out since the last call.
+     */
+    public List<Long> advance() {
+        return wheel.advance(System.currentTimeMillis());
+    }
+
+    public void schedule(Long reservationId, LocalDateTime expiresAt) {
+        wheel.schedule(reservationId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public int getPendingCount() {
+        return wheel.size();
+    }
+}
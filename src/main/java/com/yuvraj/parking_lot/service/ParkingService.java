@@ -1,14 +1,23 @@
 package com.yuvraj.parking_lot.service;
 
 import com.yuvraj.parking_lot.dto.AvailabilityResponse;
+import com.yuvraj.parking_lot.dto.BatchResponse;
 import com.yuvraj.parking_lot.dto.ParkRequest;
 import com.yuvraj.parking_lot.dto.VehicleResponse;
 
+import java.util.List;
+
 public interface ParkingService {
 
     VehicleResponse parkVehicle(ParkRequest request);
 
+    BatchResponse parkVehicles(List<ParkRequest> requests);
+
     VehicleResponse exitVehicle(String licensePlate);
 
+    BatchResponse exitVehicles(List<String> licensePlates);
+
     AvailabilityResponse getAvailableSpots();
+
+    AvailabilityResponse getAvailableSpots(Long parkingLotId);
 }
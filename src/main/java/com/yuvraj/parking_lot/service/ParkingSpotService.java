@@ -1,18 +1,26 @@
 package com.yuvraj.parking_lot.service;
 
+import com.yuvraj.parking_lot.dto.ParkingSpotPage;
 import com.yuvraj.parking_lot.dto.ParkingSpotRequest;
 import com.yuvraj.parking_lot.dto.ParkingSpotResponse;
+import com.yuvraj.parking_lot.dto.SpotImportFormat;
+import com.yuvraj.parking_lot.dto.SpotImportResponse;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface ParkingSpotService {
 
     ParkingSpotResponse addSpot(ParkingSpotRequest request);
 
+    SpotImportResponse addSpots(List<ParkingSpotRequest> requests);
+
+    SpotImportResponse importSpots(InputStream input, SpotImportFormat format);
+
     ParkingSpotResponse getSpotById(Long id);
 
-    List<ParkingSpotResponse> getAvailableSpotsByType(ParkingSpotType type);
+    ParkingSpotPage getAvailableSpotsByType(ParkingSpotType type, Long after, int limit);
 
-    List<ParkingSpotResponse> getSpotsByFloorId(Long floorId);
+    ParkingSpotPage getSpotsByFloorId(Long floorId, Long after, int limit);
 }
@@ -0,0 +1,28 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.dto.ReservationRequest;
+import com.yuvraj.parking_lot.dto.ReservationResponse;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+
+import java.util.Collection;
+
+public interface ReservationService {
+
+    ReservationResponse reserveSpot(ReservationRequest request);
+
+    ReservationResponse getReservation(Long id);
+
+    ReservationResponse cancelReservation(Long id);
+
+    /**
+     * Ends an active reservation because its vehicle has arrived and returns the
+     * held spot, which stays occupied.
+     */
+    ParkingSpot redeemReservation(Long id, String licensePlate);
+
+    /**
+     * Frees the spots of the given reservations whose hold has run out. Returns
+     * how many were expired.
+     */
+    int expireReservations(Collection<Long> ids);
+}
@@ -0,0 +1,10 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.dto.RerateResponse;
+
+import java.time.LocalDateTime;
+
+public interface TariffService {
+
+    RerateResponse rerate(LocalDateTime from, LocalDateTime to);
+}
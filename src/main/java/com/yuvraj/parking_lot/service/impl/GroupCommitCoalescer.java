@@ -0,0 +1,256 @@
+package com.yuvraj.parking_lot.service.impl;
+
+import com.yuvraj.parking_lot.dto.BatchItemResult;
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.dto.VehicleResponse;
+import com.yuvraj.parking_lot.exception.GroupCommitTimeoutException;
+import com.yuvraj.parking_lot.service.ParkingService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for single park and exit requests. Requests arriving within
+ * {@code parking.group-commit.window} of each other, up to
+ * {@code parking.group-commit.max-batch}, are run through the batch paths of
+ * {@link ParkingService} in one transaction, so concurrent gates share one
+ * commit instead of paying for one each.
+ * <p>
+ * Each caller still gets its own response or exception. Requests are applied
+ * in arrival order, and if the shared transaction fails as a whole every
+ * request in it is retried in a transaction of its own. Callers wait at most
+ * {@code parking.group-commit.timeout}; a request still queued by then is run
+ * on the caller's thread instead. Callers that are already in a transaction,
+ * such as keyed idempotent requests, bypass the coalescer since their work has
+ * to commit with the caller's.
+ */
+@Slf4j
+@Component
+public class GroupCommitCoalescer {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final ParkingService parkingService;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizes;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Duration timeout;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread flusher;
+
+    public GroupCommitCoalescer(ParkingService parkingService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${parking.group-commit.enabled:false}") boolean enabled,
+                                @Value("${parking.group-commit.window:PT0.002S}") Duration window,
+                                @Value("${parking.group-commit.max-batch:64}") int maxBatch,
+                                @Value("${parking.group-commit.timeout:PT10S}") Duration timeout) {
+        this.parkingService = parkingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSizes = DistributionSummary.builder("parking.group.commit.size")
+                .description("Park and exit requests committed together")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.timeout = timeout;
+    }
+
+    private record Pending(ParkRequest park, String exitPlate, CompletableFuture<VehicleResponse> result) {
+
+        boolean isPark() {
+            return park != null;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        // Not interrupted, so a flush in progress finishes its transaction
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public VehicleResponse parkVehicle(ParkRequest request) {
+        if (bypass()) {
+            return parkingService.parkVehicle(request);
+        }
+        return submit(new Pending(request, null, new CompletableFuture<>()));
+    }
+
+    public VehicleResponse exitVehicle(String licensePlate) {
+        if (bypass()) {
+            return parkingService.exitVehicle(licensePlate);
+        }
+        return submit(new Pending(null, licensePlate, new CompletableFuture<>()));
+    }
+
+    private boolean bypass() {
+        return !running || TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private VehicleResponse submit(Pending pending) {
+        queue.add(pending);
+        // Raced with shutdown after the flusher's last look at the queue
+        if (!running && queue.remove(pending)) {
+            applyAlone(pending);
+        }
+        try {
+            pending.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            if (!queue.remove(pending)) {
+                throw new GroupCommitTimeoutException("Group commit did not finish within " + timeout
+                        + ", the request may still be applied");
+            }
+            // Never picked up by the flusher, so it is safe to run here instead
+            applyAlone(pending);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GroupCommitTimeoutException("Interrupted while waiting for group commit, "
+                    + "the request may still be applied");
+        } catch (ExecutionException ex) {
+            // Rethrown unwrapped below
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Pending first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + windowNanos;
+                    while (batch.size() < maxBatch) {
+                        Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                } catch (InterruptedException ex) {
+                    // Stop taking new requests, the rest of the queue is still flushed
+                    running = false;
+                }
+                if (!batch.isEmpty()) {
+                    try {
+                        flush(batch);
+                    } catch (Throwable ex) {
+                        // Fail the callers rather than leave them waiting, and keep flushing
+                        log.error("Group commit of {} requests failed unexpectedly", batch.size(), ex);
+                        batch.forEach(pending -> pending.result().completeExceptionally(ex));
+                    }
+                    batch.clear();
+                }
+            }
+        } finally {
+            // Should the flusher die anyway, new requests bypass it and queued ones run alone
+            running = false;
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                applyAlone(pending);
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<BatchItemResult> results;
+        try {
+            results = transactionTemplate.execute(tx -> applyInOrder(batch));
+        } catch (RuntimeException ex) {
+            log.debug("Group commit of {} requests failed, retrying them one by one", batch.size(), ex);
+            batch.forEach(this::applyAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            BatchItemResult result = results.get(i);
+            if (result.getException() != null) {
+                batch.get(i).result().completeExceptionally(result.getException());
+            } else {
+                batch.get(i).result().complete(result.getVehicle());
+            }
+        }
+    }
+
+    /**
+     * Runs each stretch of consecutive parks or exits as one batch call, so a
+     * plate parked and exited within the same window is handled in that order.
+     */
+    private List<BatchItemResult> applyInOrder(List<Pending> batch) {
+        List<BatchItemResult> results = new ArrayList<>(batch.size());
+        int start = 0;
+        while (start < batch.size()) {
+            boolean park = batch.get(start).isPark();
+            int end = start;
+            while (end < batch.size() && batch.get(end).isPark() == park) {
+                end++;
+            }
+            List<Pending> run = batch.subList(start, end);
+            results.addAll(park
+                    ? parkingService.parkVehicles(run.stream().map(Pending::park).toList()).getResults()
+                    : parkingService.exitVehicles(run.stream().map(Pending::exitPlate).toList()).getResults());
+            start = end;
+        }
+        return results;
+    }
+
+    private void applyAlone(Pending pending) {
+        try {
+            pending.result().complete(pending.isPark()
+                    ? parkingService.parkVehicle(pending.park())
+                    : parkingService.exitVehicle(pending.exitPlate()));
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+}
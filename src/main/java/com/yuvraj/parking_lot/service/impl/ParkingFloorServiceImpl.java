@@ -1,18 +1,25 @@
 package com.yuvraj.parking_lot.service.impl;
 
+import com.yuvraj.parking_lot.cache.TopologyCache;
 import com.yuvraj.parking_lot.dto.ParkingFloorRequest;
 import com.yuvraj.parking_lot.dto.ParkingFloorResponse;
+import com.yuvraj.parking_lot.dto.SpotSummary;
 import com.yuvraj.parking_lot.entity.ParkingFloor;
 import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
 import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
 import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
 import com.yuvraj.parking_lot.service.ParkingFloorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +28,8 @@ public class ParkingFloorServiceImpl implements ParkingFloorService {
 
     private final ParkingFloorRepository parkingFloorRepository;
     private final ParkingLotRepository parkingLotRepository;
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final TopologyCache topologyCache;
 
     @Override
     public ParkingFloorResponse addFloor(ParkingFloorRequest request) {
@@ -33,24 +42,32 @@ public class ParkingFloorServiceImpl implements ParkingFloorService {
                 .build();
 
         ParkingFloor saved = parkingFloorRepository.save(floor);
+        // The lot's cached floor collection does not see a floor saved on its own
+        topologyCache.evictLotAfterCommit(parkingLot.getId());
         return mapToResponse(saved);
     }
 
+    /**
+     * The floor and its lot come from the second-level cache, so only the
+     * live spot counts are read from the database.
+     */
     @Override
     @Transactional(readOnly = true)
     public ParkingFloorResponse getFloorById(Long id) {
         ParkingFloor floor = parkingFloorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Parking floor not found with id: " + id));
-        return mapToResponse(floor);
+
+        ParkingFloorResponse response = mapToResponse(floor);
+        for (Object[] row : parkingSpotRepository.countSpotsByTypeOnFloors(List.of(id))) {
+            addSpots(response, (ParkingSpotType) row[0], (Number) row[1], (Number) row[2]);
+        }
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ParkingFloorResponse> getFloorsByParkingLotId(Long parkingLotId) {
-        return parkingFloorRepository.findByParkingLotId(parkingLotId)
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+        return mapSummaries(parkingFloorRepository.findSummariesByParkingLotId(parkingLotId));
     }
 
     private ParkingFloorResponse mapToResponse(ParkingFloor floor) {
@@ -59,7 +76,34 @@ public class ParkingFloorServiceImpl implements ParkingFloorService {
                 .floorNumber(floor.getFloorNumber())
                 .parkingLotId(floor.getParkingLot().getId())
                 .parkingLotName(floor.getParkingLot().getName())
-                .totalSpots(floor.getSpots() != null ? floor.getSpots().size() : 0)
                 .build();
     }
+
+    /**
+     * Folds the per-type summary rows into one response per floor, keeping the
+     * query's order.
+     */
+    private List<ParkingFloorResponse> mapSummaries(List<Object[]> rows) {
+        Map<Long, ParkingFloorResponse> floors = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            ParkingFloorResponse floor = floors.computeIfAbsent((Long) row[0], id -> ParkingFloorResponse.builder()
+                    .id(id)
+                    .floorNumber((Integer) row[1])
+                    .parkingLotId((Long) row[2])
+                    .parkingLotName((String) row[3])
+                    .build());
+            if (row[4] != null) {
+                addSpots(floor, (ParkingSpotType) row[4], (Number) row[5], (Number) row[6]);
+            }
+        }
+        return new ArrayList<>(floors.values());
+    }
+
+    private static void addSpots(ParkingFloorResponse floor, ParkingSpotType type, Number total, Number occupied) {
+        SpotSummary summary = SpotSummary.of(total.longValue(), occupied.longValue());
+        floor.getSpotsByType().put(type, summary);
+        floor.setTotalSpots(floor.getTotalSpots() + summary.getTotal());
+        floor.setFreeSpots(floor.getFreeSpots() + summary.getFree());
+        floor.setOccupiedSpots(floor.getOccupiedSpots() + summary.getOccupied());
+    }
 }
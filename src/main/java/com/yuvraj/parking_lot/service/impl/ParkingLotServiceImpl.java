@@ -1,16 +1,26 @@
 package com.yuvraj.parking_lot.service.impl;
 
+import com.yuvraj.parking_lot.cache.TopologyCache;
 import com.yuvraj.parking_lot.dto.ParkingLotRequest;
 import com.yuvraj.parking_lot.dto.ParkingLotResponse;
+import com.yuvraj.parking_lot.dto.SpotSummary;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
 import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
 import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
 import com.yuvraj.parking_lot.service.ParkingLotService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -18,33 +28,49 @@ import java.util.List;
 public class ParkingLotServiceImpl implements ParkingLotService {
 
     private final ParkingLotRepository parkingLotRepository;
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final FreeSpotAllocator freeSpotAllocator;
+    private final TopologyCache topologyCache;
 
     @Override
     public ParkingLotResponse createParkingLot(ParkingLotRequest request) {
         ParkingLot parkingLot = ParkingLot.builder()
                 .name(request.getName())
                 .address(request.getAddress())
+                .allocationStrategy(request.getAllocationStrategy())
                 .build();
 
         ParkingLot saved = parkingLotRepository.save(parkingLot);
+        freeSpotAllocator.assignStrategy(saved.getId(), saved.getAllocationStrategy());
+        topologyCache.changedAfterCommit();
         return mapToResponse(saved);
     }
 
+    /**
+     * The lot and its floors come from the second-level cache, so only the
+     * live spot counts are read from the database.
+     */
     @Override
     @Transactional(readOnly = true)
     public ParkingLotResponse getParkingLotById(Long id) {
         ParkingLot parkingLot = parkingLotRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Parking lot not found with id: " + id));
-        return mapToResponse(parkingLot);
+        List<Long> floorIds = parkingLot.getFloors().stream().map(ParkingFloor::getId).toList();
+
+        ParkingLotResponse response = mapToResponse(parkingLot);
+        response.setTotalFloors(floorIds.size());
+        if (!floorIds.isEmpty()) {
+            for (Object[] row : parkingSpotRepository.countSpotsByTypeOnFloors(floorIds)) {
+                addSpots(response, (ParkingSpotType) row[0], (Number) row[1], (Number) row[2]);
+            }
+        }
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ParkingLotResponse> getAllParkingLots() {
-        return parkingLotRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+        return mapSummaries(parkingLotRepository.findAllSummaries());
     }
 
     private ParkingLotResponse mapToResponse(ParkingLot parkingLot) {
@@ -52,7 +78,36 @@ public class ParkingLotServiceImpl implements ParkingLotService {
                 .id(parkingLot.getId())
                 .name(parkingLot.getName())
                 .address(parkingLot.getAddress())
-                .totalFloors(parkingLot.getFloors() != null ? parkingLot.getFloors().size() : 0)
+                .allocationStrategy(parkingLot.getAllocationStrategy())
                 .build();
     }
+
+    /**
+     * Folds the per-type summary rows into one response per lot, keeping the
+     * query's order.
+     */
+    private List<ParkingLotResponse> mapSummaries(List<Object[]> rows) {
+        Map<Long, ParkingLotResponse> lots = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            ParkingLotResponse lot = lots.computeIfAbsent((Long) row[0], id -> ParkingLotResponse.builder()
+                    .id(id)
+                    .name((String) row[1])
+                    .address((String) row[2])
+                    .allocationStrategy((AllocationStrategy) row[3])
+                    .totalFloors(((Number) row[4]).intValue())
+                    .build());
+            if (row[5] != null) {
+                addSpots(lot, (ParkingSpotType) row[5], (Number) row[6], (Number) row[7]);
+            }
+        }
+        return new ArrayList<>(lots.values());
+    }
+
+    private static void addSpots(ParkingLotResponse lot, ParkingSpotType type, Number total, Number occupied) {
+        SpotSummary summary = SpotSummary.of(total.longValue(), occupied.longValue());
+        lot.getSpotsByType().put(type, summary);
+        lot.setTotalSpots(lot.getTotalSpots() + summary.getTotal());
+        lot.setFreeSpots(lot.getFreeSpots() + summary.getFree());
+        lot.setOccupiedSpots(lot.getOccupiedSpots() + summary.getOccupied());
+    }
 }
@@ -1,25 +1,48 @@
 package com.yuvraj.parking_lot.service.impl;
 
 import com.yuvraj.parking_lot.dto.AvailabilityResponse;
+import com.yuvraj.parking_lot.dto.BatchItemResult;
+import com.yuvraj.parking_lot.dto.BatchResponse;
 import com.yuvraj.parking_lot.dto.ParkRequest;
 import com.yuvraj.parking_lot.dto.VehicleResponse;
+import com.yuvraj.parking_lot.entity.ParkingSessionHistory;
 import com.yuvraj.parking_lot.entity.ParkingSpot;
 import com.yuvraj.parking_lot.entity.Vehicle;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.exception.ReservationConflictException;
+import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
 import com.yuvraj.parking_lot.exception.SpotNotAvailableException;
 import com.yuvraj.parking_lot.exception.VehicleAlreadyParkedException;
 import com.yuvraj.parking_lot.exception.VehicleNotFoundException;
-import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import com.yuvraj.parking_lot.journal.JournalEventType;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import com.yuvraj.parking_lot.metrics.ParkingMetrics;
+import com.yuvraj.parking_lot.occupancy.ActiveSessionIndex;
+import com.yuvraj.parking_lot.occupancy.ActiveSessionIndex.ActiveSession;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.repository.ParkingSessionHistoryRepository;
 import com.yuvraj.parking_lot.repository.VehicleRepository;
 import com.yuvraj.parking_lot.service.ParkingService;
+import com.yuvraj.parking_lot.service.ReservationService;
+import com.yuvraj.parking_lot.service.impl.SpotClaimer.SpotScope;
+import com.yuvraj.parking_lot.tariff.TariffEngine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -27,84 +50,148 @@ import java.util.Map;
 public class ParkingServiceImpl implements ParkingService {
 
     private final VehicleRepository vehicleRepository;
-    private final ParkingSpotRepository parkingSpotRepository;
+    private final ParkingSessionHistoryRepository parkingSessionHistoryRepository;
+    private final OccupancyCounters occupancyCounters;
+    private final ActiveSessionIndex activeSessionIndex;
+    private final ParkingMetrics parkingMetrics;
+    private final SpotClaimer spotClaimer;
+    private final ReservationService reservationService;
+    private final OccupancyJournal occupancyJournal;
+    private final TariffEngine tariffEngine;
 
     @Override
     public VehicleResponse parkVehicle(ParkRequest request) {
-        // Check if vehicle is already parked
-        if (vehicleRepository.existsByLicensePlateAndExitTimeIsNull(request.getLicensePlate())) {
+        // A reservation already holds its spot, so there is nothing to resolve
+        SpotScope scope = request.getReservationId() == null ? resolveScope(request) : null;
+
+        // Check if vehicle is already parked, reserving the plate if it is not
+        if (!activeSessionIndex.reserve(request.getLicensePlate())) {
             throw new VehicleAlreadyParkedException(
                     "Vehicle with license plate " + request.getLicensePlate() + " is already parked");
         }
 
-        // Find an available spot of the requested type
-        ParkingSpot spot = parkingSpotRepository.findFirstByTypeAndIsOccupiedFalse(request.getSpotType())
-                .orElseThrow(() -> new SpotNotAvailableException(
-                        "No available " + request.getSpotType() + " spot found"));
+        // Find and occupy an available spot of the requested type
+        ParkingSpot spot = scope == null
+                ? reservationService.redeemReservation(request.getReservationId(), request.getLicensePlate())
+                : parkingMetrics.time(ParkingMetrics.SPOT_LOOKUP, () -> spotClaimer.claimSpots(scope, 1)).stream()
+                        .findFirst()
+                        .orElseThrow(() -> new SpotNotAvailableException(scope.unavailableMessage()));
 
-        // Mark spot as occupied
-        spot.setIsOccupied(true);
-        parkingSpotRepository.save(spot);
+        Vehicle saved = parkingMetrics.time(ParkingMetrics.VEHICLE_SAVE,
+                () -> vehicleRepository.save(createVehicle(request, spot)));
+        activeSessionIndex.activate(saved.getLicensePlate(), saved.getId(), spot.getId());
+        occupancyJournal.recordAfterCommit(JournalEventType.PARK, saved.getLicensePlate(), saved.getId(), spot);
+        return mapToResponse(saved);
+    }
 
-        // Create vehicle record
-        Vehicle vehicle = Vehicle.builder()
-                .licensePlate(request.getLicensePlate())
-                .vehicleType(request.getVehicleType())
-                .entryTime(LocalDateTime.now())
-                .parkingSpot(spot)
-                .build();
+    @Override
+    public BatchResponse parkVehicles(List<ParkRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
 
-        Vehicle saved = vehicleRepository.save(vehicle);
-        return mapToResponse(saved);
+        List<Vehicle> vehicles = new ArrayList<>();
+        List<Integer> vehicleIndexes = new ArrayList<>();
+
+        // Reject unknown floors, and plates that are already parked or repeated within the batch
+        Map<SpotScope, List<Integer>> pendingByScope = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ParkRequest request = requests.get(i);
+            SpotScope scope = null;
+            try {
+                if (request.getReservationId() == null) {
+                    scope = resolveScope(request);
+                }
+            } catch (ResourceNotFoundException ex) {
+                results[i] = failure(i, HttpStatus.NOT_FOUND, ex);
+                continue;
+            }
+            if (!activeSessionIndex.reserve(request.getLicensePlate())) {
+                results[i] = failure(i, HttpStatus.CONFLICT, new VehicleAlreadyParkedException(
+                        "Vehicle with license plate " + request.getLicensePlate() + " is already parked"));
+                continue;
+            }
+            if (scope == null) {
+                redeemReservation(request, i, vehicles, vehicleIndexes, results);
+                continue;
+            }
+            pendingByScope.computeIfAbsent(scope, key -> new ArrayList<>()).add(i);
+        }
+
+        // Claim all spots of a scope at once so the updates are flushed as one JDBC batch
+        pendingByScope.forEach((scope, indexes) -> {
+            List<ParkingSpot> spots = parkingMetrics.time(ParkingMetrics.SPOT_LOOKUP,
+                    () -> spotClaimer.claimSpots(scope, indexes.size()));
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                if (i < spots.size()) {
+                    vehicles.add(createVehicle(requests.get(index), spots.get(i)));
+                    vehicleIndexes.add(index);
+                } else {
+                    activeSessionIndex.cancel(requests.get(index).getLicensePlate());
+                    results[index] = failure(index, HttpStatus.CONFLICT,
+                            new SpotNotAvailableException(scope.unavailableMessage()));
+                }
+            }
+        });
+
+        List<Vehicle> saved = parkingMetrics.time(ParkingMetrics.VEHICLE_SAVE, () -> vehicleRepository.saveAll(vehicles));
+        for (int i = 0; i < saved.size(); i++) {
+            int index = vehicleIndexes.get(i);
+            Vehicle vehicle = saved.get(i);
+            activeSessionIndex.activate(vehicle.getLicensePlate(), vehicle.getId(), vehicle.getParkingSpot().getId());
+            occupancyJournal.recordAfterCommit(JournalEventType.PARK, vehicle.getLicensePlate(), vehicle.getId(),
+                    vehicle.getParkingSpot());
+            results[index] = success(index, HttpStatus.CREATED, mapToResponse(saved.get(i)));
+        }
+        return toBatchResponse(results);
     }
 
     @Override
     public VehicleResponse exitVehicle(String licensePlate) {
         // Find the currently parked vehicle
-        Vehicle vehicle = vehicleRepository.findByLicensePlateAndExitTimeIsNull(licensePlate)
+        Vehicle vehicle = findParkedVehicle(licensePlate)
                 .orElseThrow(() -> new VehicleNotFoundException(
                         "No parked vehicle found with license plate: " + licensePlate));
 
-        // Free the spot
-        ParkingSpot spot = vehicle.getParkingSpot();
-        if (spot != null) {
-            spot.setIsOccupied(false);
-            parkingSpotRepository.save(spot);
-        }
+        VehicleResponse response = releaseVehicle(vehicle);
+        flushReleases();
+        return response;
+    }
 
-        // Record exit
-        vehicle.setExitTime(LocalDateTime.now());
-        vehicle.setParkingSpot(null);
-        Vehicle saved = vehicleRepository.save(vehicle);
+    @Override
+    public BatchResponse exitVehicles(List<String> licensePlates) {
+        BatchItemResult[] results = new BatchItemResult[licensePlates.size()];
 
-        VehicleResponse response = mapToResponse(saved);
-        // Include spot info for reference even after exit
-        if (spot != null) {
-            response.setSpotNumber(spot.getSpotNumber());
-            response.setSpotType(spot.getType().name());
+        Map<String, Vehicle> parkedVehicles = findParkedVehicles(licensePlates);
+
+        for (int i = 0; i < licensePlates.size(); i++) {
+            String licensePlate = licensePlates.get(i);
+            // Removing the entry also rejects a plate repeated within the batch
+            Vehicle vehicle = parkedVehicles.remove(licensePlate);
+            if (vehicle == null) {
+                results[i] = failure(i, HttpStatus.NOT_FOUND, new VehicleNotFoundException(
+                        "No parked vehicle found with license plate: " + licensePlate));
+            } else {
+                results[i] = success(i, HttpStatus.OK, releaseVehicle(vehicle));
+            }
         }
-        return response;
+        flushReleases();
+        return toBatchResponse(results);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public AvailabilityResponse getAvailableSpots() {
-        List<Object[]> results = parkingSpotRepository.countAvailableSpotsByType();
-
-        Map<ParkingSpotType, Long> availabilityMap = new EnumMap<>(ParkingSpotType.class);
-        long totalAvailable = 0;
+        return toAvailability(occupancyCounters.snapshot());
+    }
 
-        for (Object[] row : results) {
-            ParkingSpotType type = (ParkingSpotType) row[0];
-            Long count = (Long) row[1];
-            availabilityMap.put(type, count);
-            totalAvailable += count;
-        }
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AvailabilityResponse getAvailableSpots(Long parkingLotId) {
+        return toAvailability(occupancyCounters.snapshot(parkingLotId));
+    }
 
-        // Include types with 0 availability
-        for (ParkingSpotType type : ParkingSpotType.values()) {
-            availabilityMap.putIfAbsent(type, 0L);
-        }
+    private AvailabilityResponse toAvailability(Map<ParkingSpotType, Long> availabilityMap) {
+        long totalAvailable = availabilityMap.values().stream().mapToLong(Long::longValue).sum();
 
         return AvailabilityResponse.builder()
                 .availableSpots(availabilityMap)
@@ -112,13 +199,156 @@ public class ParkingServiceImpl implements ParkingService {
                 .build();
     }
 
+    private Optional<Vehicle> findParkedVehicle(String licensePlate) {
+        ActiveSession session = activeSessionIndex.get(licensePlate);
+        if (session != null && !session.isPending()) {
+            Optional<Vehicle> vehicle = vehicleRepository.findById(session.vehicleId())
+                    .filter(candidate -> candidate.getLicensePlate().equals(licensePlate));
+            if (vehicle.isPresent()) {
+                return vehicle;
+            }
+        }
+        // Index miss or stale entry, fall back to the database
+        return vehicleRepository.findByLicensePlate(licensePlate);
+    }
+
+    private Map<String, Vehicle> findParkedVehicles(List<String> licensePlates) {
+        List<Long> vehicleIds = new ArrayList<>();
+        for (String licensePlate : licensePlates) {
+            ActiveSession session = activeSessionIndex.get(licensePlate);
+            if (session != null && !session.isPending()) {
+                vehicleIds.add(session.vehicleId());
+            }
+        }
+
+        Map<String, Vehicle> parkedVehicles = new HashMap<>();
+        if (!vehicleIds.isEmpty()) {
+            for (Vehicle vehicle : vehicleRepository.findByIdIn(vehicleIds)) {
+                parkedVehicles.put(vehicle.getLicensePlate(), vehicle);
+            }
+        }
+
+        // Index misses or stale entries, fall back to the database
+        Set<String> missing = new HashSet<>(licensePlates);
+        missing.removeAll(parkedVehicles.keySet());
+        if (!missing.isEmpty()) {
+            for (Vehicle vehicle : vehicleRepository.findByLicensePlateIn(missing)) {
+                parkedVehicles.put(vehicle.getLicensePlate(), vehicle);
+            }
+        }
+        return parkedVehicles;
+    }
+
+    private SpotScope resolveScope(ParkRequest request) {
+        return spotClaimer.resolveScope(request.getParkingLotId(), request.getFloorId(),
+                request.getSpotType(), request.getVehicleType());
+    }
+
+    private void redeemReservation(ParkRequest request, int index, List<Vehicle> vehicles,
+                                   List<Integer> vehicleIndexes, BatchItemResult[] results) {
+        try {
+            ParkingSpot spot = reservationService.redeemReservation(request.getReservationId(), request.getLicensePlate());
+            vehicles.add(createVehicle(request, spot));
+            vehicleIndexes.add(index);
+        } catch (ResourceNotFoundException | ReservationConflictException ex) {
+            activeSessionIndex.cancel(request.getLicensePlate());
+            HttpStatus status = ex instanceof ResourceNotFoundException ? HttpStatus.NOT_FOUND : HttpStatus.CONFLICT;
+            results[index] = failure(index, status, ex);
+        }
+    }
+
+    private Vehicle createVehicle(ParkRequest request, ParkingSpot spot) {
+        return Vehicle.builder()
+                .licensePlate(request.getLicensePlate())
+                .vehicleType(request.getVehicleType())
+                .entryTime(LocalDateTime.now())
+                .parkingSpot(spot)
+                .build();
+    }
+
+    private VehicleResponse releaseVehicle(Vehicle vehicle) {
+        // Free the spot
+        ParkingSpot spot = vehicle.getParkingSpot();
+        if (spot != null) {
+            spotClaimer.release(spot);
+        }
+
+        // Record exit by moving the session from the active table to history
+        LocalDateTime exitTime = LocalDateTime.now();
+        BigDecimal fee = spot != null
+                ? tariffEngine.price(spot.getType(), vehicle.getVehicleType(), vehicle.getEntryTime(), exitTime)
+                : null;
+        parkingMetrics.time(ParkingMetrics.SESSION_ARCHIVE, () -> archiveSession(vehicle, spot, exitTime, fee));
+        activeSessionIndex.end(vehicle.getLicensePlate());
+        occupancyJournal.recordAfterCommit(JournalEventType.EXIT, vehicle.getLicensePlate(), vehicle.getId(), spot);
+
+        // Spot info is kept in the response for reference
+        VehicleResponse response = mapToResponse(vehicle);
+        response.setExitTime(exitTime);
+        response.setFee(fee);
+        return response;
+    }
+
+    private void archiveSession(Vehicle vehicle, ParkingSpot spot, LocalDateTime exitTime, BigDecimal fee) {
+        parkingSessionHistoryRepository.save(ParkingSessionHistory.builder()
+                .sessionId(vehicle.getId())
+                .licensePlate(vehicle.getLicensePlate())
+                .vehicleType(vehicle.getVehicleType())
+                .entryTime(vehicle.getEntryTime())
+                .exitTime(exitTime)
+                .spotId(spot != null ? spot.getId() : null)
+                .spotNumber(spot != null ? spot.getSpotNumber() : null)
+                .spotType(spot != null ? spot.getType() : null)
+                .fee(fee)
+                .build());
+        vehicleRepository.delete(vehicle);
+    }
+
+    /**
+     * Hibernate flushes deletes after inserts, so push the archived sessions out
+     * now in case the freed spot or plate is parked again in this transaction.
+     */
+    private void flushReleases() {
+        vehicleRepository.flush();
+    }
+
+    private BatchItemResult success(int index, HttpStatus status, VehicleResponse vehicle) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(status.value())
+                .vehicle(vehicle)
+                .build();
+    }
+
+    private BatchItemResult failure(int index, HttpStatus status, RuntimeException exception) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(status.value())
+                .error(exception.getMessage())
+                .exception(exception)
+                .build();
+    }
+
+    private BatchResponse toBatchResponse(BatchItemResult[] results) {
+        int failed = 0;
+        for (BatchItemResult result : results) {
+            if (result.getError() != null) {
+                failed++;
+            }
+        }
+        return BatchResponse.builder()
+                .succeeded(results.length - failed)
+                .failed(failed)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
     private VehicleResponse mapToResponse(Vehicle vehicle) {
         VehicleResponse.VehicleResponseBuilder builder = VehicleResponse.builder()
                 .id(vehicle.getId())
                 .licensePlate(vehicle.getLicensePlate())
                 .vehicleType(vehicle.getVehicleType())
-                .entryTime(vehicle.getEntryTime())
-                .exitTime(vehicle.getExitTime());
+                .entryTime(vehicle.getEntryTime());
 
         if (vehicle.getParkingSpot() != null) {
             builder.spotNumber(vehicle.getParkingSpot().getSpotNumber());
@@ -1,20 +1,53 @@
 package com.yuvraj.parking_lot.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuvraj.parking_lot.dto.ParkingSpotPage;
 import com.yuvraj.parking_lot.dto.ParkingSpotRequest;
 import com.yuvraj.parking_lot.dto.ParkingSpotResponse;
+import com.yuvraj.parking_lot.dto.SpotImportError;
+import com.yuvraj.parking_lot.dto.SpotImportFormat;
+import com.yuvraj.parking_lot.dto.SpotImportResponse;
 import com.yuvraj.parking_lot.entity.ParkingFloor;
 import com.yuvraj.parking_lot.entity.ParkingSpot;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
 import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
 import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
 import com.yuvraj.parking_lot.service.ParkingSpotService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -22,6 +55,17 @@ public class ParkingSpotServiceImpl implements ParkingSpotService {
 
     private final ParkingSpotRepository parkingSpotRepository;
     private final ParkingFloorRepository parkingFloorRepository;
+    private final FreeSpotAllocator freeSpotAllocator;
+    private final OccupancyCounters occupancyCounters;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    // Multiple of hibernate.jdbc.batch_size, committed and cleared so memory stays flat
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @Override
     public ParkingSpotResponse addSpot(ParkingSpotRequest request) {
@@ -36,9 +80,45 @@ public class ParkingSpotServiceImpl implements ParkingSpotService {
                 .build();
 
         ParkingSpot saved = parkingSpotRepository.save(spot);
+        freeSpotAllocator.releaseAfterCommit(saved);
+        occupancyCounters.spotReleased(floor.getParkingLot().getId(), saved.getType());
         return mapToResponse(saved);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SpotImportResponse addSpots(List<ParkingSpotRequest> requests) {
+        SpotImport spotImport = new SpotImport();
+        for (int i = 0; i < requests.size(); i++) {
+            spotImport.add(i + 1, requests.get(i));
+        }
+        return spotImport.finish();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SpotImportResponse importSpots(InputStream input, SpotImportFormat format) {
+        SpotImport spotImport = new SpotImport();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long row = 0;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank() || (row == 1 && format == SpotImportFormat.CSV && isCsvHeader(line))) {
+                    continue;
+                }
+                try {
+                    spotImport.add(row, format == SpotImportFormat.CSV ? parseCsvRow(line) : parseJsonRow(line));
+                } catch (IllegalArgumentException ex) {
+                    spotImport.reject(row, ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read spot import", ex);
+        }
+        return spotImport.finish();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ParkingSpotResponse getSpotById(Long id) {
@@ -49,20 +129,212 @@ public class ParkingSpotServiceImpl implements ParkingSpotService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ParkingSpotResponse> getAvailableSpotsByType(ParkingSpotType type) {
-        return parkingSpotRepository.findByTypeAndIsOccupiedFalse(type)
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+    public ParkingSpotPage getAvailableSpotsByType(ParkingSpotType type, Long after, int limit) {
+        int pageSize = clampPageSize(limit);
+        // Fetch one extra row to learn whether another page follows
+        return toPage(parkingSpotRepository.findAvailablePageByType(type, cursor(after), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ParkingSpotResponse> getSpotsByFloorId(Long floorId) {
-        return parkingSpotRepository.findByFloorId(floorId)
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+    public ParkingSpotPage getSpotsByFloorId(Long floorId, Long after, int limit) {
+        int pageSize = clampPageSize(limit);
+        return toPage(parkingSpotRepository.findPageByFloorId(floorId, cursor(after), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private Long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    private ParkingSpotPage toPage(List<ParkingSpotResponse> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return ParkingSpotPage.builder().spots(rows).build();
+        }
+        List<ParkingSpotResponse> spots = rows.subList(0, pageSize);
+        return ParkingSpotPage.builder()
+                .spots(spots)
+                .nextCursor(spots.get(pageSize - 1).getId())
+                .build();
+    }
+
+    private boolean isCsvHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("spotnumber");
+    }
+
+    // Columns: spotNumber,type,floorId
+    private ParkingSpotRequest parseCsvRow(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 3) {
+            throw new IllegalArgumentException("Expected 3 columns (spotNumber,type,floorId) but found " + columns.length);
+        }
+
+        String type = columns[1].trim();
+        String floorId = columns[2].trim();
+        ParkingSpotRequest request = ParkingSpotRequest.builder()
+                .spotNumber(columns[0].trim())
+                .build();
+        if (!type.isEmpty()) {
+            try {
+                request.setType(ParkingSpotType.valueOf(type.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unknown spot type: " + type);
+            }
+        }
+        if (!floorId.isEmpty()) {
+            try {
+                request.setFloorId(Long.valueOf(floorId));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid floor ID: " + floorId);
+            }
+        }
+        return request;
+    }
+
+    private ParkingSpotRequest parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, ParkingSpotRequest.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Accumulates one import: validates rows, resolves each floor once and writes
+     * spots in chunks, each committed in a transaction of its own, so neither the
+     * persistence context, the pending commit callbacks nor the error list grows
+     * with the size of the input. A chunk the database rejects is retried in
+     * halves until the rows it refuses are isolated; only those are reported as
+     * failed and the import carries on.
+     */
+    private class SpotImport {
+
+        private final TransactionTemplate chunkTransaction = newChunkTransaction();
+        private final Map<Long, Optional<ParkingFloor>> floors = new HashMap<>();
+        private final List<ParkingSpot> pending = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        private final long[] pendingRows = new long[IMPORT_CHUNK_SIZE];
+        private final List<SpotImportError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        void add(long row, ParkingSpotRequest request) {
+            Set<ConstraintViolation<ParkingSpotRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+
+            Optional<ParkingFloor> floor = floors.computeIfAbsent(request.getFloorId(), parkingFloorRepository::findById);
+            if (floor.isEmpty()) {
+                reject(row, "Parking floor not found with id: " + request.getFloorId());
+                return;
+            }
+
+            pendingRows[pending.size()] = row;
+            pending.add(ParkingSpot.builder()
+                    .spotNumber(request.getSpotNumber())
+                    .type(request.getType())
+                    .isOccupied(false)
+                    .floor(floor.get())
+                    .build());
+            if (pending.size() >= IMPORT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(SpotImportError.builder().row(row).message(message).build());
+            }
+        }
+
+        SpotImportResponse finish() {
+            flush();
+            return SpotImportResponse.builder()
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            write(0, pending);
+            pending.clear();
+        }
+
+        // spots are the pending rows from index first on
+        private void write(int first, List<ParkingSpot> spots) {
+            try {
+                chunkTransaction.executeWithoutResult(status -> writeChunk(spots));
+                imported += spots.size();
+            } catch (DataAccessException ex) {
+                if (spots.size() == 1) {
+                    String reason = describe(ex);
+                    log.warn("Database rejected spot import row {}: {}", pendingRows[first], reason);
+                    reject(pendingRows[first], "Rejected by the database: " + reason);
+                    return;
+                }
+                // The rejected attempt already assigned ids, so the halves start from fresh entities
+                int half = spots.size() / 2;
+                write(first, copies(spots.subList(0, half)));
+                write(first + half, copies(spots.subList(half, spots.size())));
+            }
+        }
+
+        private void writeChunk(List<ParkingSpot> spots) {
+            parkingSpotRepository.saveAllAndFlush(spots);
+            entityManager.clear();
+
+            Map<ParkingFloor, Map<ParkingSpotType, List<Long>>> idsByFloor = new HashMap<>();
+            for (ParkingSpot spot : spots) {
+                idsByFloor.computeIfAbsent(spot.getFloor(), floor -> new EnumMap<>(ParkingSpotType.class))
+                        .computeIfAbsent(spot.getType(), type -> new ArrayList<>())
+                        .add(spot.getId());
+            }
+            idsByFloor.forEach((floor, idsByType) -> {
+                Long parkingLotId = floor.getParkingLot().getId();
+                idsByType.forEach((type, ids) -> {
+                    freeSpotAllocator.releaseAfterCommit(floor, type, ids);
+                    occupancyCounters.spotsAddedAfterCommit(parkingLotId, type, ids.size());
+                });
+            });
+        }
+    }
+
+    private TransactionTemplate newChunkTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static List<ParkingSpot> copies(List<ParkingSpot> spots) {
+        List<ParkingSpot> copies = new ArrayList<>(spots.size());
+        for (ParkingSpot spot : spots) {
+            copies.add(ParkingSpot.builder()
+                    .spotNumber(spot.getSpotNumber())
+                    .type(spot.getType())
+                    .isOccupied(false)
+                    .floor(spot.getFloor())
+                    .build());
+        }
+        return copies;
+    }
+
+    // First line of the driver's message, without the statement that follows it
+    private static String describe(DataAccessException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null ? message.lines().findFirst().orElse("") : ex.getClass().getSimpleName();
     }
 
     private ParkingSpotResponse mapToResponse(ParkingSpot spot) {
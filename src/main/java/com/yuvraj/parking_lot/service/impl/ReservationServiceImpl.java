@@ -0,0 +1,178 @@
+package com.yuvraj.parking_lot.service.impl;
+
+import com.yuvraj.parking_lot.dto.ReservationRequest;
+import com.yuvraj.parking_lot.dto.ReservationResponse;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.SpotReservation;
+import com.yuvraj.parking_lot.entity.enums.ReservationStatus;
+import com.yuvraj.parking_lot.exception.ReservationConflictException;
+import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
+import com.yuvraj.parking_lot.exception.SpotNotAvailableException;
+import com.yuvraj.parking_lot.exception.VehicleAlreadyParkedException;
+import com.yuvraj.parking_lot.journal.JournalEventType;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import com.yuvraj.parking_lot.occupancy.ActiveSessionIndex;
+import com.yuvraj.parking_lot.occupancy.TransactionCallbacks;
+import com.yuvraj.parking_lot.repository.SpotReservationRepository;
+import com.yuvraj.parking_lot.reservation.ReservationExpiryWheel;
+import com.yuvraj.parking_lot.service.ReservationService;
+import com.yuvraj.parking_lot.service.impl.SpotClaimer.SpotScope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ReservationServiceImpl implements ReservationService {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final SpotReservationRepository spotReservationRepository;
+    private final SpotClaimer spotClaimer;
+    private final ReservationExpiryWheel reservationExpiryWheel;
+    private final ActiveSessionIndex activeSessionIndex;
+    private final OccupancyJournal occupancyJournal;
+
+    @Value("${parking.reservation.default-hold:PT15M}")
+    private Duration defaultHold;
+
+    @Override
+    public ReservationResponse reserveSpot(ReservationRequest request) {
+        String licensePlate = request.getLicensePlate();
+        if (activeSessionIndex.get(licensePlate) != null) {
+            throw new VehicleAlreadyParkedException("Vehicle with license plate " + licensePlate + " is already parked");
+        }
+        if (spotReservationRepository.existsByLicensePlateAndStatus(licensePlate, ReservationStatus.ACTIVE)) {
+            throw new ReservationConflictException("Vehicle with license plate " + licensePlate + " already holds a reservation");
+        }
+
+        SpotScope scope = spotClaimer.resolveScope(request.getParkingLotId(), request.getFloorId(),
+                request.getSpotType(), request.getVehicleType());
+        ParkingSpot spot = spotClaimer.claimSpots(scope, 1).stream()
+                .findFirst()
+                .orElseThrow(() -> new SpotNotAvailableException(scope.unavailableMessage()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Duration hold = request.getHoldMinutes() != null ? Duration.ofMinutes(request.getHoldMinutes()) : defaultHold;
+        SpotReservation saved;
+        try {
+            // Flushed here so a concurrent hold for the same plate fails on the unique constraint, not at commit
+            saved = spotReservationRepository.saveAndFlush(SpotReservation.builder()
+                    .licensePlate(licensePlate)
+                    .vehicleType(request.getVehicleType())
+                    .spot(spot)
+                    .createdAt(now)
+                    .expiresAt(now.plus(hold))
+                    .status(ReservationStatus.ACTIVE)
+                    .build());
+        } catch (DataIntegrityViolationException ex) {
+            throw new ReservationConflictException("Vehicle with license plate " + licensePlate + " already holds a reservation");
+        }
+        reservationExpiryWheel.scheduleAfterCommit(saved.getId(), saved.getExpiresAt());
+        journal(JournalEventType.RESERVE, saved);
+        return mapToResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationResponse getReservation(Long id) {
+        return mapToResponse(spotReservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id)));
+    }
+
+    @Override
+    public ReservationResponse cancelReservation(Long id) {
+        SpotReservation reservation = findActive(id);
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        spotClaimer.release(reservation.getSpot());
+        reservationExpiryWheel.cancelAfterCommit(id);
+        journal(JournalEventType.RESERVATION_CANCELLED, reservation);
+        return mapToResponse(reservation);
+    }
+
+    @Override
+    // Batch parking reports a bad reservation per item, so it must not doom the whole transaction
+    @Transactional(noRollbackFor = {ResourceNotFoundException.class, ReservationConflictException.class})
+    public ParkingSpot redeemReservation(Long id, String licensePlate) {
+        SpotReservation reservation = findActive(id);
+        if (!reservation.getLicensePlate().equals(licensePlate)) {
+            throw new ReservationConflictException("Reservation " + id + " is not held for license plate " + licensePlate);
+        }
+        if (!reservation.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new ReservationConflictException("Reservation " + id + " has expired");
+        }
+        reservation.setStatus(ReservationStatus.FULFILLED);
+        reservationExpiryWheel.cancelAfterCommit(id);
+        journal(JournalEventType.RESERVATION_FULFILLED, reservation);
+        return reservation.getSpot();
+    }
+
+    @Override
+    public int expireReservations(Collection<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (SpotReservation reservation : spotReservationRepository.findByIdInAndStatus(ids, ReservationStatus.ACTIVE)) {
+            if (reservation.getExpiresAt().isAfter(now)) {
+                // Fired within a tick of the deadline, or the hold was extended
+                reservationExpiryWheel.scheduleAfterCommit(reservation.getId(), reservation.getExpiresAt());
+                continue;
+            }
+            reservation.setStatus(ReservationStatus.EXPIRED);
+            spotClaimer.release(reservation.getSpot());
+            journal(JournalEventType.RESERVATION_EXPIRED, reservation);
+            expired++;
+        }
+        return expired;
+    }
+
+    @Scheduled(fixedRateString = "${parking.reservation.tick:PT1S}",
+            initialDelayString = "${parking.reservation.tick:PT1S}")
+    public void expireDueReservations() {
+        List<Long> due = reservationExpiryWheel.advance();
+        if (due.isEmpty()) {
+            return;
+        }
+        // Put the holds back on the wheel if this transaction fails, so they are retried
+        LocalDateTime retryAt = LocalDateTime.now().plus(RETRY_DELAY);
+        TransactionCallbacks.afterRollback(() -> due.forEach(id -> reservationExpiryWheel.schedule(id, retryAt)));
+        int expired = expireReservations(due);
+        log.debug("Expired {} of {} due reservations", expired, due.size());
+    }
+
+    private SpotReservation findActive(Long id) {
+        SpotReservation reservation = spotReservationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            throw new ReservationConflictException("Reservation " + id + " is " + reservation.getStatus());
+        }
+        return reservation;
+    }
+
+    private void journal(JournalEventType type, SpotReservation reservation) {
+        occupancyJournal.recordAfterCommit(type, reservation.getLicensePlate(), reservation.getId(), reservation.getSpot());
+    }
+
+    private ReservationResponse mapToResponse(SpotReservation reservation) {
+        return ReservationResponse.builder()
+                .id(reservation.getId())
+                .licensePlate(reservation.getLicensePlate())
+                .vehicleType(reservation.getVehicleType())
+                .spotNumber(reservation.getSpot().getSpotNumber())
+                .spotType(reservation.getSpot().getType().name())
+                .createdAt(reservation.getCreatedAt())
+                .expiresAt(reservation.getExpiresAt())
+                .status(reservation.getStatus())
+                .build();
+    }
+}
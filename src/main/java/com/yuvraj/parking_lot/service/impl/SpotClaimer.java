@@ -0,0 +1,144 @@
+package com.yuvraj.parking_lot.service.impl;
+
+import com.yuvraj.parking_lot.allocation.AllocationContext;
+import com.yuvraj.parking_lot.allocation.SpotTypeFallbacks;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Claims and frees spots for the parking and reservation services, keeping the
+ * allocator pool and occupancy counters in step with each change. Callers must
+ * run inside a transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpotClaimer {
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final FreeSpotAllocator freeSpotAllocator;
+    private final OccupancyCounters occupancyCounters;
+    private final SpotTypeFallbacks spotTypeFallbacks;
+
+    /**
+     * Resolves where a request may park. A floor implies its lot, and an
+     * unknown lot or a floor outside the requested lot is rejected.
+     */
+    public SpotScope resolveScope(Long parkingLotId, Long floorId, ParkingSpotType spotType, VehicleType vehicleType) {
+        if (floorId != null) {
+            Long floorLotId = freeSpotAllocator.findLotOfFloor(floorId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Parking floor not found with id: " + floorId));
+            if (parkingLotId != null && !parkingLotId.equals(floorLotId)) {
+                throw new ResourceNotFoundException(
+                        "Parking floor " + floorId + " not found in parking lot " + parkingLotId);
+            }
+            parkingLotId = floorLotId;
+        } else if (parkingLotId != null && !freeSpotAllocator.lotExists(parkingLotId)) {
+            throw new ResourceNotFoundException("Parking lot not found with id: " + parkingLotId);
+        }
+        List<ParkingSpotType> types = spotType != null ? List.of(spotType) : spotTypeFallbacks.chainFor(vehicleType);
+        return new SpotScope(parkingLotId, floorId, types, vehicleType);
+    }
+
+    /**
+     * Claims up to {@code count} free spots in the given scope and marks them occupied,
+     * taking the scope's spot types in order. Returns fewer spots than requested when
+     * the scope is running out.
+     */
+    public List<ParkingSpot> claimSpots(SpotScope scope, int count) {
+        List<ParkingSpot> claimed = new ArrayList<>(count);
+        // A strategy that refuses a spot type must not be bypassed by the fallback queries below
+        List<AllocationContext> chain = scope.contexts().stream()
+                .filter(context -> scope.parkingLotId() == null
+                        || freeSpotAllocator.permits(scope.parkingLotId(), context))
+                .toList();
+
+        List<Long> candidateIds = new ArrayList<>(count);
+        while (claimed.size() < count) {
+            candidateIds.clear();
+            Long candidateId;
+            while (candidateIds.size() < count - claimed.size()
+                    && (candidateId = freeSpotAllocator.poll(scope.parkingLotId(), chain)) != null) {
+                candidateIds.add(candidateId);
+            }
+            if (candidateIds.isEmpty()) {
+                break;
+            }
+            // Lock the candidate rows, skipping any that were removed, taken or are being claimed elsewhere
+            for (ParkingSpot candidate : parkingSpotRepository.findByIdInAndIsOccupiedFalse(candidateIds)) {
+                if (scope.types().contains(candidate.getType()) && !candidate.getIsOccupied()) {
+                    occupy(candidate, claimed);
+                }
+            }
+        }
+
+        // Pool is exhausted or out of step with the database, fall back to locking lookups,
+        // narrowest scope first
+        for (AllocationContext context : chain) {
+            if (claimed.size() < count && scope.floorId() != null) {
+                occupyAll(parkingSpotRepository.findByTypeAndIsOccupiedFalseAndFloorIdOrderByIdAsc(
+                        context.spotType(), scope.floorId(), PageRequest.ofSize(count - claimed.size())), claimed);
+            }
+            if (claimed.size() < count && scope.parkingLotId() != null) {
+                occupyAll(parkingSpotRepository.findAvailableInLot(
+                        context.spotType(), scope.parkingLotId(), PageRequest.ofSize(count - claimed.size())), claimed);
+            }
+            if (claimed.size() < count && scope.parkingLotId() == null) {
+                occupyAll(parkingSpotRepository.findByTypeAndIsOccupiedFalseOrderByIdAsc(
+                        context.spotType(), PageRequest.ofSize(count - claimed.size())), claimed);
+            }
+        }
+        return claimed;
+    }
+
+    private void occupyAll(List<ParkingSpot> spots, List<ParkingSpot> claimed) {
+        for (ParkingSpot spot : spots) {
+            if (!spot.getIsOccupied()) {
+                occupy(spot, claimed);
+            }
+        }
+    }
+
+    private void occupy(ParkingSpot spot, List<ParkingSpot> claimed) {
+        spot.setIsOccupied(true);
+        occupancyCounters.spotClaimed(freeSpotAllocator.lotOf(spot), spot.getType());
+        freeSpotAllocator.releaseOnRollback(spot);
+        claimed.add(spot);
+    }
+
+    /**
+     * Marks a claimed spot free again. The pool sees it once the transaction commits.
+     */
+    public void release(ParkingSpot spot) {
+        spot.setIsOccupied(false);
+        freeSpotAllocator.releaseAfterCommit(spot);
+        occupancyCounters.spotReleased(freeSpotAllocator.lotOf(spot), spot.getType());
+    }
+
+    public record SpotScope(Long parkingLotId, Long floorId, List<ParkingSpotType> types, VehicleType vehicleType) {
+
+        List<AllocationContext> contexts() {
+            return types.stream()
+                    .map(type -> new AllocationContext(type, vehicleType, floorId))
+                    .toList();
+        }
+
+        public String unavailableMessage() {
+            String message = types.isEmpty()
+                    ? "No spot type accepts vehicle type " + vehicleType
+                    : "No available " + types.stream().map(Enum::name).collect(Collectors.joining(" or ")) + " spot found";
+            return parkingLotId != null ? message + " in parking lot " + parkingLotId : message;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.yuvraj.parking_lot.service.impl;
+
+import com.yuvraj.parking_lot.dto.RerateResponse;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.exception.RerateInProgressException;
+import com.yuvraj.parking_lot.service.TariffService;
+import com.yuvraj.parking_lot.tariff.TariffEngine;
+import com.yuvraj.parking_lot.tariff.TariffProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Re-rates session history with the current tariff, for example after the
+ * tariff has changed. Sessions are split into id ranges that are streamed and
+ * updated in parallel, one transaction per range, reading plain rows rather
+ * than entities. Only fees that change are written. A failed run leaves the
+ * ranges it finished re-rated and can simply be run again.
+ */
+@Slf4j
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TariffServiceImpl implements TariffService {
+
+    private static final String SELECT_SESSIONS = """
+            SELECT id, vehicle_type, spot_type, entry_time, exit_time, fee FROM parking_session_history
+            WHERE id >= ? AND id < ? AND exit_time >= ? AND exit_time < ?""";
+    // exit_time lets PostgreSQL go straight to the partition
+    private static final String UPDATE_FEE = "UPDATE parking_session_history SET fee = ? WHERE id = ? AND exit_time = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TariffEngine tariffEngine;
+    private final int threads;
+    private final int chunkSize;
+    // Held for a whole run, which can take minutes
+    private final ReentrantLock running = new ReentrantLock();
+
+    public TariffServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             TariffEngine tariffEngine, TariffProperties tariffProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tariffEngine = tariffEngine;
+        this.threads = tariffProperties.getRerateThreads();
+        this.chunkSize = tariffProperties.getRerateChunkSize();
+    }
+
+    private record ChunkResult(long sessions, long changed, long centsBefore, long centsAfter) {
+    }
+
+    /**
+     * Re-rates sessions that exited from {@code from} (inclusive) to
+     * {@code to} (exclusive). Runs one at a time; a call while another run is
+     * in progress is refused rather than queued.
+     */
+    @Override
+    public RerateResponse rerate(LocalDateTime from, LocalDateTime to) {
+        if (!running.tryLock()) {
+            throw new RerateInProgressException("A re-rate is already running, retry once it has finished");
+        }
+        try {
+            return rerateSessions(from, to);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private RerateResponse rerateSessions(LocalDateTime from, LocalDateTime to) {
+        long startedAt = System.nanoTime();
+        Long[] bounds = jdbcTemplate.queryForObject(
+                "SELECT MIN(id), MAX(id) FROM parking_session_history WHERE exit_time >= ? AND exit_time < ?",
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)}, from, to);
+
+        long sessions = 0;
+        long changed = 0;
+        long centsBefore = 0;
+        long centsAfter = 0;
+        if (bounds != null && bounds[0] != null) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<ChunkResult>> chunks = new ArrayList<>();
+                for (long low = bounds[0]; low <= bounds[1]; low += chunkSize) {
+                    long chunkLow = low;
+                    long chunkHigh = Math.min(low + chunkSize, bounds[1] + 1);
+                    chunks.add(executor.submit(() ->
+                            transactionTemplate.execute(tx -> rerateChunk(chunkLow, chunkHigh, from, to))));
+                }
+                for (Future<ChunkResult> chunk : chunks) {
+                    ChunkResult result = await(chunk);
+                    sessions += result.sessions();
+                    changed += result.changed();
+                    centsBefore += result.centsBefore();
+                    centsAfter += result.centsAfter();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Re-rated {} sessions exited from {} to {}, {} fees changed, in {} ms",
+                sessions, from, to, changed, elapsedMillis);
+        return RerateResponse.builder()
+                .from(from)
+                .to(to)
+                .sessions(sessions)
+                .changed(changed)
+                .totalBefore(BigDecimal.valueOf(centsBefore, 2))
+                .totalAfter(BigDecimal.valueOf(centsAfter, 2))
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private ChunkResult rerateChunk(long low, long high, LocalDateTime from, LocalDateTime to) {
+        List<Object[]> updates = new ArrayList<>();
+        long[] totals = new long[3];
+        jdbcTemplate.query(SELECT_SESSIONS, rs -> {
+            String spotType = rs.getString("spot_type");
+            String vehicleType = rs.getString("vehicle_type");
+            LocalDateTime exitTime = rs.getObject("exit_time", LocalDateTime.class);
+            // Like a live exit, a session that never had a spot has no fee
+            BigDecimal newFee = spotType == null ? null : BigDecimal.valueOf(tariffEngine.priceCents(
+                    ParkingSpotType.valueOf(spotType),
+                    vehicleType != null ? VehicleType.valueOf(vehicleType) : null,
+                    rs.getObject("entry_time", LocalDateTime.class), exitTime), 2);
+
+            BigDecimal fee = rs.getBigDecimal("fee");
+            totals[0]++;
+            totals[1] += cents(fee);
+            totals[2] += cents(newFee);
+            if (fee == null || newFee == null ? fee != newFee : fee.compareTo(newFee) != 0) {
+                updates.add(new Object[]{newFee, rs.getLong("id"), exitTime});
+            }
+        }, low, high, from, to);
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_FEE, updates);
+        }
+        return new ChunkResult(totals[0], updates.size(), totals[1], totals[2]);
+    }
+
+    private static long cents(BigDecimal fee) {
+        return fee != null ? fee.movePointRight(2).longValue() : 0;
+    }
+
+    private static ChunkResult await(Future<ChunkResult> chunk) {
+        try {
+            return chunk.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while re-rating", ex);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.yuvraj.parking_lot.tariff;
+
+/**
+ * The tariff for one spot and vehicle type, compiled to a running total of the
+ * charge for each minute of the day. Amounts are in thousandths of a cent so
+ * that fractional per-minute rates add up without drift.
+ */
+final class RateTable {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    // cumulative[m] is the charge for minutes 0 (inclusive) to m (exclusive) of a day
+    private final long[] cumulative;
+    private final long dailyCap;
+    private final long fullDay;
+    private final long graceMinutes;
+
+    RateTable(long[] perMinute, long dailyCap, long graceMinutes) {
+        this.cumulative = new long[MINUTES_PER_DAY + 1];
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            cumulative[minute + 1] = cumulative[minute] + perMinute[minute];
+        }
+        this.dailyCap = dailyCap;
+        this.fullDay = Math.min(cumulative[MINUTES_PER_DAY], dailyCap);
+        this.graceMinutes = graceMinutes;
+    }
+
+    /**
+     * The charge in cents for minutes {@code entryMinute} (inclusive) to
+     * {@code exitMinute} (exclusive), counted from the epoch in local time.
+     */
+    long priceCents(long entryMinute, long exitMinute) {
+        if (exitMinute - entryMinute < graceMinutes || exitMinute <= entryMinute) {
+            return 0;
+        }
+        long entryDay = Math.floorDiv(entryMinute, MINUTES_PER_DAY);
+        long exitDay = Math.floorDiv(exitMinute, MINUTES_PER_DAY);
+        int entryOfDay = (int) Math.floorMod(entryMinute, MINUTES_PER_DAY);
+        int exitOfDay = (int) Math.floorMod(exitMinute, MINUTES_PER_DAY);
+
+        long total;
+        if (entryDay == exitDay) {
+            total = capped(entryOfDay, exitOfDay);
+        } else {
+            total = capped(entryOfDay, MINUTES_PER_DAY)
+                    + (exitDay - entryDay - 1) * fullDay
+                    + capped(0, exitOfDay);
+        }
+        return (total + 500) / 1000;
+    }
+
+    private long capped(int fromMinute, int toMinute) {
+        return Math.min(cumulative[toMinute] - cumulative[fromMinute], dailyCap);
+    }
+}
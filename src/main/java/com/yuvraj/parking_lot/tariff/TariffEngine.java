@@ -0,0 +1,94 @@
+package com.yuvraj.parking_lot.tariff;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Prices parking sessions from {@link TariffProperties}. The tariff is compiled
+ * once into an immutable {@link RateTable} per spot and vehicle type, so
+ * {@link #priceCents} is a handful of array lookups and allocates nothing;
+ * {@link #price} wraps its result in a {@link BigDecimal}.
+ */
+@Component
+public class TariffEngine {
+
+    // Thousandths of a cent per unit of currency
+    private static final BigDecimal MILLICENTS = BigDecimal.valueOf(100_000);
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int MINUTES_PER_HOUR = 60;
+    // Column of the tables for sessions without a vehicle type, which pay the plain rate
+    private static final int NO_VEHICLE_TYPE = VehicleType.values().length;
+
+    private final RateTable[][] tables;
+
+    public TariffEngine(TariffProperties properties) {
+        this.tables = compile(properties);
+    }
+
+    /**
+     * The fee in cents for a session, charged per started minute. Sessions
+     * without a spot type are free.
+     */
+    public long priceCents(ParkingSpotType spotType, VehicleType vehicleType, LocalDateTime entryTime,
+                           LocalDateTime exitTime) {
+        if (spotType == null || entryTime == null || exitTime == null) {
+            return 0;
+        }
+        long entryMinute = Math.floorDiv(entryTime.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_MINUTE);
+        long exitMinute = -Math.floorDiv(-exitTime.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_MINUTE);
+        int column = vehicleType != null ? vehicleType.ordinal() : NO_VEHICLE_TYPE;
+        return tables[spotType.ordinal()][column].priceCents(entryMinute, exitMinute);
+    }
+
+    public BigDecimal price(ParkingSpotType spotType, VehicleType vehicleType, LocalDateTime entryTime,
+                            LocalDateTime exitTime) {
+        return BigDecimal.valueOf(priceCents(spotType, vehicleType, entryTime, exitTime), 2);
+    }
+
+    private static RateTable[][] compile(TariffProperties properties) {
+        BigDecimal[] bandMultipliers = new BigDecimal[RateTable.MINUTES_PER_DAY];
+        Arrays.fill(bandMultipliers, BigDecimal.ONE);
+        for (TariffProperties.Band band : properties.getBands()) {
+            int from = LocalTime.parse(band.getFrom()).toSecondOfDay() / SECONDS_PER_MINUTE;
+            int to = LocalTime.parse(band.getTo()).toSecondOfDay() / SECONDS_PER_MINUTE;
+            if (from == to) {
+                throw new IllegalStateException("Tariff band from " + band.getFrom() + " to " + band.getTo()
+                        + " is empty");
+            }
+            for (int minute = from; minute != to; minute = (minute + 1) % RateTable.MINUTES_PER_DAY) {
+                bandMultipliers[minute] = band.getMultiplier();
+            }
+        }
+
+        long graceMinutes = properties.getGracePeriod().toMinutes();
+        RateTable[][] tables = new RateTable[ParkingSpotType.values().length][NO_VEHICLE_TYPE + 1];
+        for (ParkingSpotType spotType : ParkingSpotType.values()) {
+            BigDecimal hourlyRate = properties.getHourlyRates().getOrDefault(spotType, BigDecimal.ZERO);
+            BigDecimal dailyCap = properties.getDailyCaps().get(spotType);
+            for (int column = 0; column <= NO_VEHICLE_TYPE; column++) {
+                BigDecimal multiplier = column == NO_VEHICLE_TYPE ? BigDecimal.ONE
+                        : properties.getVehicleMultipliers().getOrDefault(VehicleType.values()[column], BigDecimal.ONE);
+                BigDecimal perMinute = hourlyRate.multiply(multiplier).multiply(MILLICENTS)
+                        .divide(BigDecimal.valueOf(MINUTES_PER_HOUR), 6, RoundingMode.HALF_UP);
+
+                long[] charges = new long[RateTable.MINUTES_PER_DAY];
+                for (int minute = 0; minute < charges.length; minute++) {
+                    charges[minute] = perMinute.multiply(bandMultipliers[minute])
+                            .setScale(0, RoundingMode.HALF_UP).longValueExact();
+                }
+                long cap = dailyCap == null ? Long.MAX_VALUE
+                        : dailyCap.multiply(multiplier).multiply(MILLICENTS).setScale(0, RoundingMode.HALF_UP).longValueExact();
+                tables[spotType.ordinal()][column] = new RateTable(charges, cap, graceMinutes);
+            }
+        }
+        return tables;
+    }
+}
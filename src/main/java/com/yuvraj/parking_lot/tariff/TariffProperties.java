@@ -0,0 +1,78 @@
+package com.yuvraj.parking_lot.tariff;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parking tariff, set under {@code parking.tariff}. A session is charged per
+ * started minute at its spot type's hourly rate, times the multiplier of the
+ * time-of-day band each minute falls in and the vehicle type's multiplier.
+ * Each calendar day is capped at the spot type's daily cap, scaled by the same
+ * vehicle multiplier. Sessions shorter than the grace period are free.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "parking.tariff")
+public class TariffProperties {
+
+    private Map<ParkingSpotType, BigDecimal> hourlyRates = new EnumMap<>(Map.of(
+            ParkingSpotType.HANDICAPPED, new BigDecimal("1.00"),
+            ParkingSpotType.COMPACT, new BigDecimal("2.00"),
+            ParkingSpotType.LARGE, new BigDecimal("3.00"),
+            ParkingSpotType.MOTORBIKE, new BigDecimal("1.00"),
+            ParkingSpotType.ELECTRIC, new BigDecimal("2.50")));
+
+    // Spot types without a cap are uncapped
+    private Map<ParkingSpotType, BigDecimal> dailyCaps = new EnumMap<>(Map.of(
+            ParkingSpotType.HANDICAPPED, new BigDecimal("10.00"),
+            ParkingSpotType.COMPACT, new BigDecimal("20.00"),
+            ParkingSpotType.LARGE, new BigDecimal("30.00"),
+            ParkingSpotType.MOTORBIKE, new BigDecimal("10.00"),
+            ParkingSpotType.ELECTRIC, new BigDecimal("25.00")));
+
+    // Vehicle types without a multiplier pay the plain rate
+    private Map<VehicleType, BigDecimal> vehicleMultipliers = new EnumMap<>(Map.of(
+            VehicleType.TRUCK, new BigDecimal("1.5")));
+
+    // Later bands win where bands overlap
+    private List<Band> bands = new ArrayList<>(List.of(
+            new Band("07:00", "10:00", new BigDecimal("1.5")),
+            new Band("16:00", "19:00", new BigDecimal("1.5")),
+            new Band("22:00", "06:00", new BigDecimal("0.5"))));
+
+    private Duration gracePeriod = Duration.ofMinutes(10);
+
+    // Re-rating of session history
+    private int rerateThreads = 4;
+    private int rerateChunkSize = 10_000;
+
+    /**
+     * A time-of-day band from {@code from} up to {@code to}, both {@code HH:mm}.
+     * A band whose end is before its start runs past midnight; one that ends
+     * where it starts is rejected.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Band {
+
+        private String from;
+        private String to;
+        private BigDecimal multiplier;
+    }
+}
@@ -0,0 +1,11 @@
+-- Vehicle and parking spot ids moved from IDENTITY columns to pooled sequences.
+-- Move each sequence past the ids already handed out so existing rows never collide.
+SELECT setval('vehicle_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM vehicle), (SELECT last_value FROM vehicle_seq)));
+SELECT setval('parking_spot_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM parking_spot), (SELECT last_value FROM parking_spot_seq)));
+
+-- Active reservations made before active_license_plate existed. Where a plate holds several,
+-- only the newest is marked so the unique constraint still holds.
+UPDATE spot_reservation r SET active_license_plate = r.license_plate
+WHERE r.status = 'ACTIVE' AND r.active_license_plate IS NULL
+  AND NOT EXISTS (SELECT 1 FROM spot_reservation o
+                  WHERE o.license_plate = r.license_plate AND o.status = 'ACTIVE' AND o.id > r.id);
@@ -1,12 +1,18 @@
 package com.yuvraj.parking_lot.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuvraj.parking_lot.dto.BatchExitRequest;
+import com.yuvraj.parking_lot.dto.BatchParkRequest;
 import com.yuvraj.parking_lot.dto.ParkRequest;
 import com.yuvraj.parking_lot.entity.ParkingFloor;
 import com.yuvraj.parking_lot.entity.ParkingLot;
 import com.yuvraj.parking_lot.entity.ParkingSpot;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.idempotency.IdempotencyStore;
+import com.yuvraj.parking_lot.metrics.ParkingMetrics;
+import com.yuvraj.parking_lot.occupancy.AvailabilityBroadcaster;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
 import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
 import com.yuvraj.parking_lot.repository.ParkingLotRepository;
 import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
@@ -15,17 +21,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 @Transactional
 class VehicleControllerIntegrationTest {
 
@@ -47,6 +65,18 @@ class VehicleControllerIntegrationTest {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private ParkingMetrics parkingMetrics;
+
+    @Autowired
+    private AvailabilityBroadcaster availabilityBroadcaster;
+
+    private Long floorId;
+    private Long parkingLotId;
+
     @BeforeEach
     void setUp() {
         vehicleRepository.deleteAll();
@@ -59,11 +89,16 @@ class VehicleControllerIntegrationTest {
 
         ParkingFloor floor = parkingFloorRepository.save(ParkingFloor.builder()
                 .floorNumber(1).parkingLot(lot).build());
+        floorId = floor.getId();
+        parkingLotId = lot.getId();
 
         parkingSpotRepository.save(ParkingSpot.builder()
                 .spotNumber("C-1").type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
         parkingSpotRepository.save(ParkingSpot.builder()
                 .spotNumber("E-1").type(ParkingSpotType.ELECTRIC).isOccupied(false).floor(floor).build());
+
+        // Spots were written straight through the repository, so resync the counters
+        occupancyCounters.reconcile();
     }
 
     @Test
@@ -156,4 +191,239 @@ class VehicleControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("POST /api/vehicles/park/batch - should report a result per item")
+    void testParkVehicleBatch() throws Exception {
+        BatchParkRequest request = BatchParkRequest.builder()
+                .requests(List.of(
+                        ParkRequest.builder().licensePlate("BAT-001")
+                                .vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build(),
+                        ParkRequest.builder().licensePlate("BAT-002")
+                                .vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build(),
+                        ParkRequest.builder().licensePlate("BAT-001")
+                                .vehicleType(VehicleType.ELECTRIC).spotType(ParkingSpotType.ELECTRIC).build(),
+                        ParkRequest.builder().licensePlate("BAT-003")
+                                .vehicleType(VehicleType.ELECTRIC).spotType(ParkingSpotType.ELECTRIC).build()))
+                .build();
+
+        mockMvc.perform(post("/api/vehicles/park/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].vehicle.spotNumber").value("C-1"))
+                .andExpect(jsonPath("$.results[1].status").value(409))
+                .andExpect(jsonPath("$.results[2].status").value(409))
+                .andExpect(jsonPath("$.results[3].status").value(201))
+                .andExpect(jsonPath("$.results[3].vehicle.spotType").value("ELECTRIC"));
+
+        mockMvc.perform(get("/api/vehicles/availability"))
+                .andExpect(jsonPath("$.totalAvailable").value(0));
+    }
+
+    @Test
+    @DisplayName("POST /api/vehicles/exits - should report a result per item")
+    void testExitVehicleBatch() throws Exception {
+        ParkRequest request = ParkRequest.builder()
+                .licensePlate("BAT-010")
+                .vehicleType(VehicleType.CAR)
+                .spotType(ParkingSpotType.COMPACT)
+                .build();
+
+        mockMvc.perform(post("/api/vehicles/park")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        BatchExitRequest exitRequest = BatchExitRequest.builder()
+                .licensePlates(List.of("BAT-010", "NON-EXIST", "BAT-010"))
+                .build();
+
+        mockMvc.perform(post("/api/vehicles/exits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(exitRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].vehicle.exitTime").isNotEmpty())
+                .andExpect(jsonPath("$.results[1].status").value(404))
+                .andExpect(jsonPath("$.results[2].status").value(404));
+
+        // A plate that reads like the old batch path exits like any other
+        mockMvc.perform(post("/api/vehicles/park")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ParkRequest.builder()
+                                .licensePlate("batch").vehicleType(VehicleType.CAR)
+                                .spotType(ParkingSpotType.COMPACT).build())))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/vehicles/exit/batch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.licensePlate").value("batch"));
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus - should expose parking timers, rejections and occupancy")
+    void testPrometheusMetrics() throws Exception {
+        ParkRequest request = ParkRequest.builder()
+                .licensePlate("MET-001")
+                .vehicleType(VehicleType.CAR)
+                .spotType(ParkingSpotType.COMPACT)
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/vehicles/park")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)));
+        }
+        parkingMetrics.refreshFloorOccupancy();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("parking_park_seconds_count{outcome=\"success\"")))
+                .andExpect(content().string(containsString("parking_spot_lookup_seconds_bucket")))
+                .andExpect(content().string(containsString(
+                        "parking_rejections_total{exception=\"VehicleAlreadyParkedException\",operation=\"parking.park\"}")))
+                .andExpect(content().string(containsString("parking_spots_free{type=\"COMPACT\"} 0.0")))
+                .andExpect(content().string(containsString(
+                        "parking_floor_spots{floor=\"" + floorId + "\",state=\"occupied\"} 1.0")));
+    }
+
+    @Test
+    // Only committed parks are streamed, so this test commits and cleans up
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("GET /api/vehicles/availability/stream - should push a snapshot, then one coalesced delta")
+    void testAvailabilityStream() throws Exception {
+        try {
+            availabilityBroadcaster.publishChanges();
+
+            MvcResult stream = mockMvc.perform(get("/api/vehicles/availability/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            for (ParkingSpotType type : List.of(ParkingSpotType.COMPACT, ParkingSpotType.ELECTRIC)) {
+                ParkRequest request = ParkRequest.builder()
+                        .licensePlate("SSE-" + type)
+                        .vehicleType(VehicleType.CAR)
+                        .spotType(type)
+                        .build();
+                mockMvc.perform(post("/api/vehicles/park")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isCreated());
+            }
+            availabilityBroadcaster.publishChanges();
+            availabilityBroadcaster.publishChanges();
+            availabilityBroadcaster.completeAll();
+
+            String events = stream.getResponse().getContentAsString();
+            assertTrue(events.startsWith("event:snapshot\ndata:{\"availableSpots\":{\"HANDICAPPED\":0,\"COMPACT\":1,"));
+            assertTrue(events.contains(
+                    "event:delta\ndata:{\"availableSpots\":{\"COMPACT\":0,\"ELECTRIC\":0},\"totalAvailable\":0}"));
+            assertEquals(1, events.split("event:delta", -1).length - 1);
+        } finally {
+            vehicleRepository.deleteAll();
+            parkingSpotRepository.deleteAll();
+            parkingFloorRepository.deleteAll();
+            parkingLotRepository.deleteAll();
+            occupancyCounters.reconcile();
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/vehicles/availability/stream - should not push parks that have not committed")
+    void testAvailabilityStreamSkipsUncommitted() throws Exception {
+        availabilityBroadcaster.publishChanges();
+
+        MvcResult stream = mockMvc.perform(get("/api/vehicles/availability/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Runs inside the test transaction, which rolls back
+        mockMvc.perform(post("/api/vehicles/park")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ParkRequest.builder()
+                                .licensePlate("SSE-OPEN").vehicleType(VehicleType.CAR)
+                                .spotType(ParkingSpotType.COMPACT).build())))
+                .andExpect(status().isCreated());
+        assertEquals(0, occupancyCounters.getFreeCount(parkingLotId, ParkingSpotType.COMPACT));
+        availabilityBroadcaster.publishChanges();
+        availabilityBroadcaster.completeAll();
+
+        assertFalse(stream.getResponse().getContentAsString().contains("event:delta"));
+    }
+
+    @Test
+    @DisplayName("POST /api/vehicles/park and exit - should replay the original response for a retried Idempotency-Key")
+    void testIdempotentParkAndExit() throws Exception {
+        String body = objectMapper.writeValueAsString(ParkRequest.builder()
+                .licensePlate("IDEM-001").vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build());
+
+        String first = mockMvc.perform(post("/api/vehicles/park")
+                        .header(IdempotencyStore.HEADER, "gate-1-park-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyStore.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        // A retry is answered from the stored response instead of failing as already parked
+        String retried = mockMvc.perform(post("/api/vehicles/park")
+                        .header(IdempotencyStore.HEADER, "gate-1-park-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(objectMapper.readTree(first), objectMapper.readTree(retried));
+        assertEquals(1, vehicleRepository.count());
+
+        mockMvc.perform(post("/api/vehicles/exit/IDEM-001").header(IdempotencyStore.HEADER, "gate-1-exit-1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/vehicles/exit/IDEM-001").header(IdempotencyStore.HEADER, "gate-1-exit-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.licensePlate").value("IDEM-001"));
+
+        // The same key for a different vehicle is a client bug, not a retry
+        mockMvc.perform(post("/api/vehicles/exit/OTHER-001").header(IdempotencyStore.HEADER, "gate-1-exit-1"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("GET /api/vehicles/availability and /api/floors/parking-lot/{id} - should answer If-None-Match with 304 until occupancy changes")
+    void testConditionalGet() throws Exception {
+        String availabilityTag = mockMvc.perform(get("/api/vehicles/availability"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(availabilityTag);
+        mockMvc.perform(get("/api/vehicles/availability").header("If-None-Match", availabilityTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", availabilityTag))
+                .andExpect(content().string(""));
+
+        String floorsTag = mockMvc.perform(get("/api/floors/parking-lot/" + parkingLotId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/floors/parking-lot/" + parkingLotId).header("If-None-Match", floorsTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/vehicles/park")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ParkRequest.builder()
+                                .licensePlate("ETAG-001").vehicleType(VehicleType.CAR)
+                                .spotType(ParkingSpotType.COMPACT).build())))
+                .andExpect(status().isCreated());
+
+        String changedTag = mockMvc.perform(get("/api/vehicles/availability").header("If-None-Match", availabilityTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableSpots.COMPACT").value(0))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(availabilityTag, changedTag);
+        mockMvc.perform(get("/api/floors/parking-lot/" + parkingLotId).header("If-None-Match", floorsTag))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,304 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.dto.VehicleResponse;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.Vehicle;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.exception.SpotNotAvailableException;
+import com.yuvraj.parking_lot.exception.VehicleAlreadyParkedException;
+import com.yuvraj.parking_lot.exception.VehicleNotFoundException;
+import com.yuvraj.parking_lot.occupancy.ActiveSessionIndex;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
+import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import com.yuvraj.parking_lot.repository.VehicleRepository;
+import com.yuvraj.parking_lot.service.impl.GroupCommitCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires park requests from many gate threads at once and checks that no spot
+ * is ever handed to two vehicles. Not transactional: every park must commit.
+ * <p>
+ * This is a correctness test only. It does not measure throughput, and H2
+ * renders the claim query as a plain {@code FOR UPDATE}, so the
+ * {@code SKIP LOCKED} path is only exercised on PostgreSQL. Gate scaling is
+ * measured by the JMH benchmarks.
+ */
+@SpringBootTest
+class ConcurrentParkingStressTest {
+
+    private static final int SPOTS = 60;
+    private static final int REQUESTS = 90;
+
+    @Autowired
+    private ParkingService parkingService;
+
+    @Autowired
+    private FreeSpotAllocator freeSpotAllocator;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private ActiveSessionIndex activeSessionIndex;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingFloorRepository parkingFloorRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder()
+                .name("Stress Lot").address("1 Load St").build());
+        ParkingFloor floor = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(1).parkingLot(lot).build());
+
+        List<ParkingSpot> spots = new ArrayList<>();
+        for (int i = 0; i < SPOTS; i++) {
+            spots.add(ParkingSpot.builder()
+                    .spotNumber("S-" + i).type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
+        }
+        parkingSpotRepository.saveAll(spots);
+        occupancyCounters.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        vehicleRepository.deleteAll();
+        parkingSpotRepository.deleteAll();
+        parkingFloorRepository.deleteAll();
+        parkingLotRepository.deleteAll();
+        freeSpotAllocator.seed();
+        occupancyCounters.reconcile();
+        activeSessionIndex.rebuild();
+    }
+
+    @ParameterizedTest(name = "{0} gates, allocator seeded")
+    @ValueSource(ints = {1, 4, 16})
+    @DisplayName("Should never assign a spot twice when claiming through the allocator")
+    void testConcurrentParkingThroughAllocator(int gates) throws Exception {
+        freeSpotAllocator.seed();
+        runGates(gates, parkingService::parkVehicle, true);
+    }
+
+    @ParameterizedTest(name = "{0} gates, database fallback")
+    @ValueSource(ints = {1, 4, 16})
+    @DisplayName("Should never assign a spot twice when claiming through the locking query")
+    void testConcurrentParkingThroughDatabase(int gates) throws Exception {
+        // The allocator was seeded before the spots existed, so every claim uses the locking query
+        runGates(gates, parkingService::parkVehicle, false);
+    }
+
+    @ParameterizedTest(name = "{0} gates, group commit")
+    @ValueSource(ints = {4, 16})
+    @DisplayName("Should never assign a spot twice when parks are committed in groups")
+    void testConcurrentParkingThroughGroupCommit(int gates) throws Exception {
+        freeSpotAllocator.seed();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GroupCommitCoalescer coalescer = groupCommitCoalescer(meterRegistry);
+        try {
+            runGates(gates, coalescer::parkVehicle, true);
+        } finally {
+            coalescer.stop();
+        }
+        assertTrue(meterRegistry.summary("parking.group.commit.size").max() > 1);
+    }
+
+    @Test
+    @DisplayName("Should give each group-committed request its own exception")
+    void testGroupCommitErrors() throws Exception {
+        freeSpotAllocator.seed();
+        GroupCommitCoalescer coalescer = groupCommitCoalescer(new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ParkRequest request = ParkRequest.builder()
+                    .licensePlate("GROUP-1")
+                    .vehicleType(VehicleType.CAR)
+                    .spotType(ParkingSpotType.COMPACT)
+                    .build();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<VehicleResponse>> parks = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                parks.add(executor.submit(() -> {
+                    start.await();
+                    return coalescer.parkVehicle(request);
+                }));
+            }
+            Future<VehicleResponse> exit = executor.submit(() -> {
+                start.await();
+                return coalescer.exitVehicle("GROUP-UNKNOWN");
+            });
+            start.countDown();
+
+            int parked = 0;
+            int alreadyParked = 0;
+            for (Future<VehicleResponse> park : parks) {
+                try {
+                    assertEquals("GROUP-1", park.get(60, TimeUnit.SECONDS).getLicensePlate());
+                    parked++;
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(VehicleAlreadyParkedException.class, ex.getCause());
+                    alreadyParked++;
+                }
+            }
+            assertEquals(1, parked);
+            assertEquals(1, alreadyParked);
+            ExecutionException notFound = assertThrows(ExecutionException.class, () -> exit.get(60, TimeUnit.SECONDS));
+            assertInstanceOf(VehicleNotFoundException.class, notFound.getCause());
+
+            assertNotNull(coalescer.exitVehicle("GROUP-1").getExitTime());
+            assertEquals(SPOTS, occupancyCounters.getFreeCount(ParkingSpotType.COMPACT));
+        } finally {
+            executor.shutdown();
+            coalescer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail grouped callers when a batch throws an Error and keep flushing")
+    void testGroupCommitSurvivesErrors() throws Exception {
+        freeSpotAllocator.seed();
+        AtomicInteger batches = new AtomicInteger();
+        ParkingService failingOnce = (ParkingService) Proxy.newProxyInstance(ParkingService.class.getClassLoader(),
+                new Class<?>[]{ParkingService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("parkVehicles") && batches.getAndIncrement() == 0) {
+                        throw new StackOverflowError();
+                    }
+                    try {
+                        return method.invoke(parkingService, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+        GroupCommitCoalescer coalescer = groupCommitCoalescer(failingOnce, new SimpleMeterRegistry());
+        try {
+            assertThrows(StackOverflowError.class, () -> coalescer.parkVehicle(ParkRequest.builder()
+                    .licensePlate("ERROR-1").vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build()));
+            assertEquals("ERROR-2", coalescer.parkVehicle(ParkRequest.builder()
+                    .licensePlate("ERROR-2").vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build())
+                    .getLicensePlate());
+            assertEquals(2, batches.get());
+        } finally {
+            coalescer.stop();
+        }
+    }
+
+    private GroupCommitCoalescer groupCommitCoalescer(SimpleMeterRegistry meterRegistry) {
+        return groupCommitCoalescer(parkingService, meterRegistry);
+    }
+
+    private GroupCommitCoalescer groupCommitCoalescer(ParkingService service, SimpleMeterRegistry meterRegistry) {
+        GroupCommitCoalescer coalescer = new GroupCommitCoalescer(service, transactionManager, meterRegistry,
+                true, Duration.ofMillis(2), 64, Duration.ofSeconds(30));
+        coalescer.start();
+        return coalescer;
+    }
+
+    /**
+     * Parks {@link #REQUESTS} cars for {@link #SPOTS} spots. A path that hands
+     * out distinct pooled spots must fill every spot without a conflict.
+     */
+    private void runGates(int gates, Function<ParkRequest, VehicleResponse> park, boolean fillsEverySpot)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(gates);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger unavailable = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<VehicleResponse>> results = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            ParkRequest request = ParkRequest.builder()
+                    .licensePlate("GATE-" + gates + "-" + i)
+                    .vehicleType(VehicleType.CAR)
+                    .spotType(ParkingSpotType.COMPACT)
+                    .build();
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return park.apply(request);
+                } catch (SpotNotAvailableException ex) {
+                    unavailable.incrementAndGet();
+                } catch (ObjectOptimisticLockingFailureException ex) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        List<VehicleResponse> parked = new ArrayList<>();
+        for (Future<VehicleResponse> result : results) {
+            VehicleResponse response = result.get(60, TimeUnit.SECONDS);
+            if (response != null) {
+                parked.add(response);
+            }
+        }
+        executor.shutdown();
+
+        Set<String> assignedSpots = new HashSet<>();
+        for (VehicleResponse response : parked) {
+            assertTrue(assignedSpots.add(response.getSpotNumber()),
+                    "Spot " + response.getSpotNumber() + " was assigned twice");
+        }
+
+        List<Vehicle> vehicles = vehicleRepository.findAll();
+        assertEquals(parked.size(), vehicles.size());
+        assertEquals(parked.size(), vehicles.stream().map(v -> v.getParkingSpot().getId()).distinct().count());
+        assertEquals(SPOTS - parked.size(), parkingSpotRepository.countByTypeAndIsOccupiedFalse(ParkingSpotType.COMPACT));
+        assertEquals(REQUESTS, parked.size() + unavailable.get() + conflicts.get());
+        if (fillsEverySpot) {
+            assertEquals(SPOTS, parked.size());
+            assertEquals(0, conflicts.get());
+        } else {
+            assertTrue(parked.size() <= SPOTS);
+        }
+        assertEquals(SPOTS - parked.size(), occupancyCounters.getFreeCount(ParkingSpotType.COMPACT));
+    }
+}
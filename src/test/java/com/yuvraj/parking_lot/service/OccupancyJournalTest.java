@@ -0,0 +1,77 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.journal.JournalEvent;
+import com.yuvraj.parking_lot.journal.JournalEventType;
+import com.yuvraj.parking_lot.journal.JournalReader;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyJournalTest {
+
+    // Long enough that only the explicit sync() calls force the journal
+    private static final Duration SYNC_INTERVAL = Duration.ofHours(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should append fixed-size records and read them back across segments")
+    void testAppendAndRead() throws Exception {
+        OccupancyJournal journal = new OccupancyJournal(directory, 4, true, SYNC_INTERVAL);
+        journal.open();
+        for (int i = 1; i <= 10; i++) {
+            journal.append(i % 2 == 1 ? JournalEventType.PARK : JournalEventType.EXIT, "JRN-" + i, i, 100L + i,
+                    ParkingSpotType.COMPACT);
+        }
+        journal.sync();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        List<JournalEvent> events = journal.read(2, 5);
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), events.stream().map(JournalEvent::sequence).toList());
+        assertEquals(JournalEventType.PARK, events.get(0).type());
+        assertEquals("JRN-3", events.get(0).licensePlate());
+        assertEquals(103L, events.get(0).spotId());
+        assertEquals(ParkingSpotType.COMPACT, events.get(0).spotType());
+
+        assertEquals(List.of(9L, 10L), journal.tail(2).stream().map(JournalEvent::sequence).toList());
+        assertTrue(journal.read(10, 5).isEmpty());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should resume after the last complete record when reopened")
+    void testRecoveryOnReopen() {
+        OccupancyJournal journal = new OccupancyJournal(directory, 4, true, SYNC_INTERVAL);
+        journal.open();
+        for (int i = 1; i <= 6; i++) {
+            journal.append(JournalEventType.RESERVE, "JRN-" + i, i, null, null);
+        }
+        journal.close();
+
+        OccupancyJournal reopened = new OccupancyJournal(directory, 4, true, SYNC_INTERVAL);
+        reopened.open();
+        assertEquals(6, reopened.getLastSequence());
+        JournalEvent next = reopened.append(JournalEventType.RESERVATION_EXPIRED, "JRN-6", 6, null, null);
+        assertEquals(7, next.sequence());
+        reopened.close();
+
+        List<JournalEvent> events = new JournalReader(directory).read(0, 100);
+        assertEquals(7, events.size());
+        assertNull(events.get(0).spotId());
+        assertNull(events.get(0).spotType());
+        assertEquals(JournalEventType.RESERVATION_EXPIRED, events.get(6).type());
+    }
+}
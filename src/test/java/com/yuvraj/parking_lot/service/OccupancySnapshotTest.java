@@ -0,0 +1,179 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.allocation.AllocationContext;
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.journal.JournalEvent;
+import com.yuvraj.parking_lot.journal.JournalEventType;
+import com.yuvraj.parking_lot.journal.OccupancyJournal;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.occupancy.OccupancySnapshot;
+import com.yuvraj.parking_lot.occupancy.OccupancySnapshotter;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
+import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import com.yuvraj.parking_lot.repository.SpotReservationRepository;
+import com.yuvraj.parking_lot.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OccupancySnapshotTest {
+
+    @Autowired
+    private ParkingService parkingService;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingFloorRepository parkingFloorRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private SpotReservationRepository spotReservationRepository;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private FreeSpotAllocator freeSpotAllocator;
+
+    @Autowired
+    private OccupancySnapshotter occupancySnapshotter;
+
+    @Autowired
+    private OccupancyJournal occupancyJournal;
+
+    @TempDir
+    Path directory;
+
+    private ParkingSpot freeCompact;
+    private ParkingSpot occupiedCompact;
+
+    @BeforeEach
+    void setUp() {
+        vehicleRepository.deleteAll();
+        spotReservationRepository.deleteAll();
+        parkingSpotRepository.deleteAll();
+        parkingFloorRepository.deleteAll();
+        parkingLotRepository.deleteAll();
+
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder()
+                .name("Snapshot Lot").address("3 Restore St").build());
+        ParkingFloor ground = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(0).parkingLot(lot).build());
+        ParkingFloor upper = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(1).parkingLot(lot).build());
+        freeCompact = parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("S-1").type(ParkingSpotType.COMPACT).isOccupied(false).floor(ground).build());
+        parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("S-2").type(ParkingSpotType.COMPACT).isOccupied(false).floor(ground).build());
+        occupiedCompact = parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("S-3").type(ParkingSpotType.COMPACT).isOccupied(true).floor(ground).build());
+        parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("S-4").type(ParkingSpotType.LARGE).isOccupied(false).floor(upper).build());
+
+        occupancyCounters.reconcile();
+        freeSpotAllocator.seed();
+    }
+
+    @Test
+    @DisplayName("Should restore the allocator and counters from a snapshot")
+    void testRestoreFromSnapshot() {
+        Path file = directory.resolve("occupancy.snapshot");
+        occupancySnapshotter.write(file);
+
+        // Start from empty state, as after a restart
+        occupancyCounters.restore(Map.of());
+        assertEquals(0L, parkingService.getAvailableSpots().getTotalAvailable());
+
+        assertTrue(occupancySnapshotter.restore(file));
+        Map<ParkingSpotType, Long> available = parkingService.getAvailableSpots().getAvailableSpots();
+        assertEquals(2L, available.get(ParkingSpotType.COMPACT));
+        assertEquals(1L, available.get(ParkingSpotType.LARGE));
+
+        parkingService.parkVehicle(ParkRequest.builder()
+                .licensePlate("SNAP-001").vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build());
+        assertEquals(1L, parkingService.getAvailableSpots().getAvailableSpots().get(ParkingSpotType.COMPACT));
+    }
+
+    @Test
+    @DisplayName("Should top the pool up with free spots it is missing and count only those")
+    void testVerifyCountsMissingSpots() {
+        AllocationContext compact = new AllocationContext(ParkingSpotType.COMPACT, VehicleType.CAR, null);
+        assertNotNull(freeSpotAllocator.poll(null, compact));
+        assertNotNull(freeSpotAllocator.poll(null, compact));
+
+        assertEquals(2, freeSpotAllocator.verify());
+        assertEquals(0, freeSpotAllocator.verify());
+    }
+
+    @Test
+    @DisplayName("Should apply journal events on top of a snapshot and survive a round trip")
+    void testApplyJournalEvents() throws Exception {
+        OccupancySnapshot snapshot = OccupancySnapshot.fromSpotLocations(0, parkingSpotRepository.findSpotLocations());
+        assertEquals(2, snapshot.bitmaps().size());
+
+        assertTrue(snapshot.apply(event(1, JournalEventType.PARK, freeCompact)));
+        assertTrue(snapshot.apply(event(2, JournalEventType.EXIT, occupiedCompact)));
+        assertTrue(snapshot.apply(event(3, JournalEventType.RESERVE, occupiedCompact)));
+        assertTrue(snapshot.apply(event(4, JournalEventType.RESERVATION_EXPIRED, occupiedCompact)));
+        assertFalse(snapshot.apply(new JournalEvent(5, 0, JournalEventType.PARK, occupiedCompact.getId() + 1000,
+                ParkingSpotType.COMPACT, 5, "UNKNOWN")));
+
+        Path file = directory.resolve("occupancy.snapshot");
+        snapshot.writeTo(file);
+        OccupancySnapshot read = OccupancySnapshot.readFrom(file);
+
+        Long lotId = parkingLotRepository.findAll().get(0).getId();
+        Map<ParkingSpotType, Long> counts = read.freeCounts().get(lotId);
+        assertEquals(2L, counts.get(ParkingSpotType.COMPACT));
+        assertEquals(1L, counts.get(ParkingSpotType.LARGE));
+        assertEquals(snapshot.createdAt(), read.createdAt());
+    }
+
+    @Test
+    @DisplayName("Should ignore a corrupt snapshot or one the journal does not reach")
+    void testRejectUnusableSnapshot() throws Exception {
+        Path ahead = directory.resolve("ahead.snapshot");
+        OccupancySnapshot.fromSpotLocations(occupancyJournal.getLastSequence() + 100,
+                parkingSpotRepository.findSpotLocations()).writeTo(ahead);
+        assertFalse(occupancySnapshotter.restore(ahead));
+
+        Path corrupt = directory.resolve("corrupt.snapshot");
+        occupancySnapshotter.write(corrupt);
+        byte[] bytes = Files.readAllBytes(corrupt);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(corrupt, bytes);
+        assertFalse(occupancySnapshotter.restore(corrupt));
+
+        assertFalse(occupancySnapshotter.restore(directory.resolve("missing.snapshot")));
+    }
+
+    private JournalEvent event(long sequence, JournalEventType type, ParkingSpot spot) {
+        return new JournalEvent(sequence, 0, type, spot.getId(), spot.getType(), sequence, "SNAP-" + sequence);
+    }
+}
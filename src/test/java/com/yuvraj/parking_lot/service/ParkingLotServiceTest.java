@@ -1,14 +1,25 @@
 package com.yuvraj.parking_lot.service;
 
+import com.yuvraj.parking_lot.cache.TopologyCache;
+import com.yuvraj.parking_lot.dto.ParkingFloorResponse;
 import com.yuvraj.parking_lot.dto.ParkingLotRequest;
 import com.yuvraj.parking_lot.dto.ParkingLotResponse;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
 import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import com.yuvraj.parking_lot.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -22,11 +33,32 @@ class ParkingLotServiceTest {
     @Autowired
     private ParkingLotService parkingLotService;
 
+    @Autowired
+    private ParkingFloorService parkingFloorService;
+
     @Autowired
     private ParkingLotRepository parkingLotRepository;
 
+    @Autowired
+    private ParkingFloorRepository parkingFloorRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private TopologyCache topologyCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
+        vehicleRepository.deleteAll();
+        parkingSpotRepository.deleteAll();
+        parkingFloorRepository.deleteAll();
         parkingLotRepository.deleteAll();
     }
 
@@ -80,4 +112,113 @@ class ParkingLotServiceTest {
 
         assertEquals(2, lots.size());
     }
+
+    @Test
+    @DisplayName("Should summarize floors and spots per type for lots and floors")
+    void testLotAndFloorSummaries() {
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder()
+                .name("Summary Lot").address("5 Count Ave").build());
+        ParkingFloor ground = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(0).parkingLot(lot).build());
+        ParkingFloor empty = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(1).parkingLot(lot).build());
+        parkingLotRepository.save(ParkingLot.builder().name("Empty Lot").address("6 Count Ave").build());
+
+        parkingSpotRepository.saveAll(List.of(
+                ParkingSpot.builder().spotNumber("C-1").type(ParkingSpotType.COMPACT).isOccupied(true).floor(ground).build(),
+                ParkingSpot.builder().spotNumber("C-2").type(ParkingSpotType.COMPACT).isOccupied(false).floor(ground).build(),
+                ParkingSpot.builder().spotNumber("E-1").type(ParkingSpotType.ELECTRIC).isOccupied(false).floor(ground).build()));
+
+        List<ParkingLotResponse> lots = parkingLotService.getAllParkingLots();
+        assertEquals(2, lots.size());
+
+        ParkingLotResponse summary = lots.get(0);
+        assertEquals("Summary Lot", summary.getName());
+        assertEquals(2, summary.getTotalFloors());
+        assertEquals(3, summary.getTotalSpots());
+        assertEquals(2, summary.getFreeSpots());
+        assertEquals(1, summary.getOccupiedSpots());
+        assertEquals(1, summary.getSpotsByType().get(ParkingSpotType.COMPACT).getOccupied());
+        assertEquals(1, summary.getSpotsByType().get(ParkingSpotType.ELECTRIC).getFree());
+
+        ParkingLotResponse emptyLot = lots.get(1);
+        assertEquals(0, emptyLot.getTotalFloors());
+        assertTrue(emptyLot.getSpotsByType().isEmpty());
+
+        List<ParkingFloorResponse> floors = parkingFloorService.getFloorsByParkingLotId(lot.getId());
+        assertEquals(2, floors.size());
+        assertEquals(3, floors.get(0).getTotalSpots());
+        assertEquals(2, floors.get(0).getSpotsByType().get(ParkingSpotType.COMPACT).getTotal());
+        assertEquals(0, floors.get(1).getTotalSpots());
+        assertEquals(empty.getId(), parkingFloorService.getFloorById(empty.getId()).getId());
+        assertEquals("Summary Lot", parkingFloorService.getFloorById(ground.getId()).getParkingLotName());
+    }
+
+    @Test
+    // Entities inserted in the running transaction are never cached, so this test commits and cleans up
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should serve repeated floor loads from the second-level cache until evicted")
+    void testTopologyCache() {
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder().name("Cached Lot").address("5 Cache Rd").build());
+        ParkingFloor floor = parkingFloorRepository.save(ParkingFloor.builder().floorNumber(2).parkingLot(lot).build());
+        try {
+            // IDENTITY inserts are not cached, so the first load misses and fills the region
+            parkingFloorRepository.findById(floor.getId()).orElseThrow();
+            double hits = floorCacheGets("hit");
+            double misses = floorCacheGets("miss");
+
+            assertEquals(2, parkingFloorRepository.findById(floor.getId()).orElseThrow().getFloorNumber());
+            assertEquals(hits + 1, floorCacheGets("hit"));
+            assertEquals(misses, floorCacheGets("miss"));
+
+            topologyCache.evictFloor(floor.getId());
+            parkingFloorRepository.findById(floor.getId()).orElseThrow();
+            assertTrue(floorCacheGets("miss") > misses);
+            assertEquals(hits + 1, floorCacheGets("hit"));
+        } finally {
+            parkingFloorRepository.deleteById(floor.getId());
+            parkingLotRepository.deleteById(lot.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should read lots and floors by ID from the second-level cache and only count spots live")
+    void testLookupsByIdUseCache() {
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder().name("Lookup Lot").address("7 Cache Rd").build());
+        ParkingFloor floor = parkingFloorRepository.save(ParkingFloor.builder().floorNumber(1).parkingLot(lot).build());
+        ParkingSpot spot = parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("L-1").type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
+        try {
+            parkingLotService.getParkingLotById(lot.getId());
+            parkingFloorService.getFloorById(floor.getId());
+            double lotHits = cacheGets(TopologyCache.LOT_REGION, "hit");
+            double floorHits = floorCacheGets("hit");
+
+            ParkingLotResponse foundLot = parkingLotService.getParkingLotById(lot.getId());
+            ParkingFloorResponse foundFloor = parkingFloorService.getFloorById(floor.getId());
+
+            assertEquals(1, foundLot.getTotalFloors());
+            assertEquals(1, foundLot.getFreeSpots());
+            assertEquals("Lookup Lot", foundFloor.getParkingLotName());
+            assertEquals(1, foundFloor.getSpotsByType().get(ParkingSpotType.COMPACT).getFree());
+            assertTrue(cacheGets(TopologyCache.LOT_REGION, "hit") > lotHits);
+            assertTrue(floorCacheGets("hit") > floorHits);
+        } finally {
+            parkingSpotRepository.deleteById(spot.getId());
+            parkingFloorRepository.deleteById(floor.getId());
+            // The lot's cached floor collection still lists the deleted floor
+            topologyCache.evictLot(lot.getId());
+            parkingLotRepository.deleteById(lot.getId());
+        }
+    }
+
+    private double floorCacheGets(String result) {
+        return cacheGets(TopologyCache.FLOOR_REGION, result);
+    }
+
+    private double cacheGets(String region, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", region).tag("result", result)
+                .functionCounter().count();
+    }
 }
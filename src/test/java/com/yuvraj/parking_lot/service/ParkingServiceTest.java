@@ -1,20 +1,30 @@
 package com.yuvraj.parking_lot.service;
 
+import com.yuvraj.parking_lot.allocation.AllocationContext;
 import com.yuvraj.parking_lot.dto.AvailabilityResponse;
 import com.yuvraj.parking_lot.dto.ParkRequest;
 import com.yuvraj.parking_lot.dto.VehicleResponse;
 import com.yuvraj.parking_lot.entity.ParkingFloor;
 import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSessionHistory;
 import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.AllocationStrategy;
 import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
 import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.exception.ResourceNotFoundException;
 import com.yuvraj.parking_lot.exception.SpotNotAvailableException;
 import com.yuvraj.parking_lot.exception.VehicleAlreadyParkedException;
 import com.yuvraj.parking_lot.exception.VehicleNotFoundException;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
 import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
 import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSessionHistoryRepository;
 import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
 import com.yuvraj.parking_lot.repository.VehicleRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,12 +32,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
 class ParkingServiceTest {
 
+    private static final int BATCH_SIZE = 40;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private ParkingService parkingService;
 
@@ -43,6 +62,17 @@ class ParkingServiceTest {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private ParkingSessionHistoryRepository parkingSessionHistoryRepository;
+
+    @Autowired
+    private FreeSpotAllocator freeSpotAllocator;
+
+    private ParkingLot lot;
+
     @BeforeEach
     void setUp() {
         vehicleRepository.deleteAll();
@@ -51,7 +81,7 @@ class ParkingServiceTest {
         parkingLotRepository.deleteAll();
 
         // Create a parking lot with a floor and spots
-        ParkingLot lot = ParkingLot.builder()
+        lot = ParkingLot.builder()
                 .name("Test Lot")
                 .address("123 Test St")
                 .build();
@@ -76,6 +106,9 @@ class ParkingServiceTest {
                 .spotNumber("E-1").type(ParkingSpotType.ELECTRIC).isOccupied(false).floor(floor).build());
         parkingSpotRepository.save(ParkingSpot.builder()
                 .spotNumber("H-1").type(ParkingSpotType.HANDICAPPED).isOccupied(false).floor(floor).build());
+
+        // Spots were written straight through the repository, so resync the counters
+        occupancyCounters.reconcile();
     }
 
     @Test
@@ -150,6 +183,8 @@ class ParkingServiceTest {
         assertEquals("EXIT-001", response.getLicensePlate());
         assertNotNull(response.getEntryTime());
         assertNotNull(response.getExitTime());
+        // Within the grace period
+        assertEquals(new BigDecimal("0.00"), response.getFee());
     }
 
     @Test
@@ -204,4 +239,266 @@ class ParkingServiceTest {
         assertEquals(2L, response.getAvailableSpots().get(ParkingSpotType.COMPACT));
         assertEquals(6, response.getTotalAvailable());
     }
+
+    @Test
+    @DisplayName("Should leave in-flight claims alone and correct drift confirmed by two checks")
+    void testCorrectDrift() {
+        // A claim whose transaction has not committed, so the database does not show it yet
+        occupancyCounters.spotClaimed(lot.getId(), ParkingSpotType.COMPACT);
+        occupancyCounters.correctDrift();
+        occupancyCounters.correctDrift();
+        assertEquals(1, occupancyCounters.getFreeCount(lot.getId(), ParkingSpotType.COMPACT));
+
+        // A write that bypasses the service layer
+        ParkingSpot spot = parkingSpotRepository.findFirstByTypeAndIsOccupiedFalse(ParkingSpotType.COMPACT).orElseThrow();
+        spot.setIsOccupied(true);
+        parkingSpotRepository.saveAndFlush(spot);
+
+        occupancyCounters.correctDrift();
+        assertEquals(1, occupancyCounters.getFreeCount(lot.getId(), ParkingSpotType.COMPACT));
+        occupancyCounters.correctDrift();
+        assertEquals(0, occupancyCounters.getFreeCount(lot.getId(), ParkingSpotType.COMPACT));
+        occupancyCounters.correctDrift();
+        assertEquals(0, occupancyCounters.getFreeCount(lot.getId(), ParkingSpotType.COMPACT));
+    }
+
+    @Test
+    @DisplayName("Should skip stale allocator candidates and claim a free spot")
+    void testParkVehicleSkipsStaleAllocatorCandidate() {
+        ParkingSpot taken = parkingSpotRepository.findFirstByTypeAndIsOccupiedFalse(ParkingSpotType.LARGE).orElseThrow();
+        ParkingSpot free = parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("L-2").type(ParkingSpotType.LARGE).isOccupied(false).floor(taken.getFloor()).build());
+        taken.setIsOccupied(true);
+        parkingSpotRepository.save(taken);
+        // The pool hands out the lowest id first, so the stale spot is polled before the free one
+        freeSpotAllocator.release(taken);
+        freeSpotAllocator.release(free);
+
+        ParkRequest request = ParkRequest.builder()
+                .licensePlate("STALE-001")
+                .vehicleType(VehicleType.TRUCK)
+                .spotType(ParkingSpotType.LARGE)
+                .parkingLotId(lot.getId())
+                .build();
+
+        VehicleResponse response = parkingService.parkVehicle(request);
+
+        assertEquals("L-2", response.getSpotNumber());
+        assertNull(freeSpotAllocator.poll(lot.getId(),
+                new AllocationContext(ParkingSpotType.LARGE, VehicleType.TRUCK, null)));
+
+        ParkRequest another = ParkRequest.builder()
+                .licensePlate("STALE-002")
+                .vehicleType(VehicleType.TRUCK)
+                .spotType(ParkingSpotType.LARGE)
+                .parkingLotId(lot.getId())
+                .build();
+        assertThrows(SpotNotAvailableException.class, () -> parkingService.parkVehicle(another));
+    }
+
+    @Test
+    @DisplayName("Should write batch parks and exits in JDBC batches")
+    void testBatchWritesAreBatched() {
+        ParkingFloor floor = parkingSpotRepository.findFirstByTypeAndIsOccupiedFalse(ParkingSpotType.COMPACT)
+                .orElseThrow().getFloor();
+        List<ParkingSpot> spots = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            spots.add(ParkingSpot.builder()
+                    .spotNumber("B-" + i).type(ParkingSpotType.LARGE).isOccupied(false).floor(floor).build());
+        }
+        parkingSpotRepository.saveAll(spots);
+        List<ParkRequest> requests = new ArrayList<>();
+        List<String> licensePlates = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            licensePlates.add("BATCH-" + i);
+            requests.add(ParkRequest.builder()
+                    .licensePlate("BATCH-" + i)
+                    .vehicleType(VehicleType.VAN)
+                    .spotType(ParkingSpotType.LARGE)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            assertEquals(BATCH_SIZE, parkingService.parkVehicles(requests).getSucceeded());
+            entityManager.flush();
+            // Unbatched, every vehicle insert and spot update would be a statement of its own
+            assertEquals(BATCH_SIZE, statistics.getEntityInsertCount());
+            assertEquals(BATCH_SIZE, statistics.getEntityUpdateCount());
+            assertTrue(statistics.getPrepareStatementCount() < 10,
+                    statistics.getPrepareStatementCount() + " statements for " + BATCH_SIZE + " parks");
+
+            entityManager.clear();
+            statistics.clear();
+            assertEquals(BATCH_SIZE, parkingService.exitVehicles(licensePlates).getSucceeded());
+            entityManager.flush();
+            assertEquals(BATCH_SIZE, statistics.getEntityDeleteCount());
+            assertEquals(BATCH_SIZE, statistics.getEntityInsertCount());
+            assertTrue(statistics.getPrepareStatementCount() < 10,
+                    statistics.getPrepareStatementCount() + " statements for " + BATCH_SIZE + " exits");
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Should archive the session on exit and allow the vehicle to park again")
+    void testParkAgainAfterExit() {
+        ParkRequest request = ParkRequest.builder()
+                .licensePlate("AGAIN-001")
+                .vehicleType(VehicleType.CAR)
+                .spotType(ParkingSpotType.COMPACT)
+                .build();
+
+        VehicleResponse first = parkingService.parkVehicle(request);
+        parkingService.exitVehicle("AGAIN-001");
+        VehicleResponse second = parkingService.parkVehicle(request);
+
+        assertNotEquals(first.getId(), second.getId());
+        assertNull(second.getExitTime());
+        assertTrue(vehicleRepository.findByLicensePlate("AGAIN-001").isPresent());
+
+        List<ParkingSessionHistory> history = parkingSessionHistoryRepository.findByLicensePlateOrderByExitTimeDesc("AGAIN-001");
+        assertEquals(1, history.size());
+        assertEquals(first.getId(), history.get(0).getSessionId());
+        assertEquals(first.getSpotNumber(), history.get(0).getSpotNumber());
+        assertNotNull(history.get(0).getExitTime());
+    }
+
+    @Test
+    @DisplayName("Should park within the requested lot, preferring the requested floor")
+    void testParkVehicleScopedToLotAndFloor() {
+        ParkingLot site = parkingLotRepository.save(ParkingLot.builder()
+                .name("Second Site").address("2 Other Rd").build());
+        ParkingFloor lower = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(1).parkingLot(site).build());
+        ParkingFloor upper = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(2).parkingLot(site).build());
+        parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("S-1").type(ParkingSpotType.COMPACT).isOccupied(false).floor(lower).build());
+        parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("S-2").type(ParkingSpotType.COMPACT).isOccupied(false).floor(upper).build());
+        occupancyCounters.reconcile();
+        freeSpotAllocator.seed();
+
+        ParkRequest.ParkRequestBuilder request = ParkRequest.builder()
+                .vehicleType(VehicleType.CAR)
+                .spotType(ParkingSpotType.COMPACT)
+                .parkingLotId(site.getId())
+                .floorId(upper.getId());
+
+        assertEquals("S-2", parkingService.parkVehicle(request.licensePlate("SITE-001").build()).getSpotNumber());
+        // Preferred floor is full, so the rest of the lot is used
+        assertEquals("S-1", parkingService.parkVehicle(request.licensePlate("SITE-002").build()).getSpotNumber());
+
+        // The first lot still has compact spots, but they are out of scope
+        SpotNotAvailableException ex = assertThrows(SpotNotAvailableException.class, () -> parkingService.parkVehicle(
+                request.licensePlate("SITE-003").floorId(null).build()));
+        assertEquals("No available COMPACT spot found in parking lot " + site.getId(), ex.getMessage());
+
+        assertThrows(ResourceNotFoundException.class, () -> parkingService.parkVehicle(
+                request.licensePlate("SITE-004").parkingLotId(lot.getId()).floorId(upper.getId()).build()));
+        ResourceNotFoundException missing = assertThrows(ResourceNotFoundException.class, () -> parkingService.parkVehicle(
+                request.licensePlate("SITE-005").parkingLotId(Long.MAX_VALUE).floorId(null).build()));
+        assertEquals("Parking lot not found with id: " + Long.MAX_VALUE, missing.getMessage());
+
+        assertEquals(0L, parkingService.getAvailableSpots(site.getId()).getTotalAvailable());
+        assertEquals(2L, parkingService.getAvailableSpots(lot.getId()).getAvailableSpots().get(ParkingSpotType.COMPACT));
+        assertEquals(6, parkingService.getAvailableSpots().getTotalAvailable());
+    }
+
+    @Test
+    @DisplayName("Should pick spots with the lot's nearest-to-entrance or floor-balanced strategy")
+    void testParkVehicleWithLotAllocationStrategy() {
+        ParkingLot nearest = parkingLotRepository.save(ParkingLot.builder()
+                .name("Nearest Site").address("3 Ramp Rd").allocationStrategy(AllocationStrategy.NEAREST_TO_ENTRANCE).build());
+        ParkingFloor roof = parkingFloorRepository.save(ParkingFloor.builder().floorNumber(3).parkingLot(nearest).build());
+        ParkingFloor ground = parkingFloorRepository.save(ParkingFloor.builder().floorNumber(0).parkingLot(nearest).build());
+        saveSpots(roof, "R-", 1);
+        saveSpots(ground, "G-", 1);
+
+        ParkingLot balanced = parkingLotRepository.save(ParkingLot.builder()
+                .name("Balanced Site").address("4 Level St").allocationStrategy(AllocationStrategy.FLOOR_BALANCED).build());
+        ParkingFloor quiet = parkingFloorRepository.save(ParkingFloor.builder().floorNumber(1).parkingLot(balanced).build());
+        ParkingFloor busy = parkingFloorRepository.save(ParkingFloor.builder().floorNumber(2).parkingLot(balanced).build());
+        saveSpots(quiet, "Q-", 1);
+        saveSpots(busy, "B-", 3);
+        occupancyCounters.reconcile();
+        freeSpotAllocator.seed();
+
+        ParkRequest.ParkRequestBuilder request = ParkRequest.builder()
+                .vehicleType(VehicleType.CAR)
+                .spotType(ParkingSpotType.COMPACT);
+
+        // Created first and with a lower ID, but further from the entrance
+        assertEquals("G-1", parkingService.parkVehicle(
+                request.licensePlate("NEAR-001").parkingLotId(nearest.getId()).build()).getSpotNumber());
+        assertEquals("R-1", parkingService.parkVehicle(
+                request.licensePlate("NEAR-002").parkingLotId(nearest.getId()).build()).getSpotNumber());
+
+        // The busy floor is drained until both floors have one spot left
+        assertEquals("B-1", parkingService.parkVehicle(
+                request.licensePlate("BAL-001").parkingLotId(balanced.getId()).build()).getSpotNumber());
+        assertEquals("B-2", parkingService.parkVehicle(
+                request.licensePlate("BAL-002").parkingLotId(balanced.getId()).build()).getSpotNumber());
+    }
+
+    @Test
+    @DisplayName("Should hold back the last electric spots of a reserved-EV lot for electric vehicles")
+    void testParkVehicleRespectsEvReserve() {
+        ParkingLot site = parkingLotRepository.save(ParkingLot.builder()
+                .name("EV Site").address("5 Charge Ave").allocationStrategy(AllocationStrategy.RESERVED_EV_PRIORITY).build());
+        ParkingFloor floor = parkingFloorRepository.save(ParkingFloor.builder().floorNumber(1).parkingLot(site).build());
+        for (int i = 1; i <= 3; i++) {
+            parkingSpotRepository.save(ParkingSpot.builder()
+                    .spotNumber("EV-" + i).type(ParkingSpotType.ELECTRIC).isOccupied(false).floor(floor).build());
+        }
+        occupancyCounters.reconcile();
+        freeSpotAllocator.seed();
+
+        ParkRequest.ParkRequestBuilder request = ParkRequest.builder()
+                .spotType(ParkingSpotType.ELECTRIC)
+                .parkingLotId(site.getId());
+
+        // Three free is above the reserve of two, so a car may still take one
+        assertNotNull(parkingService.parkVehicle(request.licensePlate("EV-CAR-1").vehicleType(VehicleType.CAR).build()));
+        assertThrows(SpotNotAvailableException.class, () -> parkingService.parkVehicle(
+                request.licensePlate("EV-CAR-2").vehicleType(VehicleType.CAR).build()));
+
+        assertNotNull(parkingService.parkVehicle(request.licensePlate("EV-001").vehicleType(VehicleType.ELECTRIC).build()));
+        assertNotNull(parkingService.parkVehicle(request.licensePlate("EV-002").vehicleType(VehicleType.ELECTRIC).build()));
+        assertEquals(0L, parkingService.getAvailableSpots(site.getId()).getAvailableSpots().get(ParkingSpotType.ELECTRIC));
+    }
+
+    @Test
+    @DisplayName("Should fall back along the vehicle type's spot types when no spot type is requested")
+    void testParkVehicleFallsBackAcrossSpotTypes() {
+        ParkRequest.ParkRequestBuilder car = ParkRequest.builder().vehicleType(VehicleType.CAR);
+
+        assertEquals("COMPACT", parkingService.parkVehicle(car.licensePlate("FB-001").build()).getSpotType());
+        assertEquals("COMPACT", parkingService.parkVehicle(car.licensePlate("FB-002").build()).getSpotType());
+        // Compact is full, so the same call lands in the large spot
+        assertEquals("LARGE", parkingService.parkVehicle(car.licensePlate("FB-003").build()).getSpotType());
+
+        SpotNotAvailableException ex = assertThrows(SpotNotAvailableException.class,
+                () -> parkingService.parkVehicle(car.licensePlate("FB-004").build()));
+        assertEquals("No available COMPACT or LARGE spot found", ex.getMessage());
+
+        // An explicit spot type is still strict
+        ParkRequest strict = ParkRequest.builder()
+                .licensePlate("FB-005").vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build();
+        assertThrows(SpotNotAvailableException.class, () -> parkingService.parkVehicle(strict));
+        assertEquals(1L, parkingService.getAvailableSpots().getAvailableSpots().get(ParkingSpotType.MOTORBIKE));
+    }
+
+    private void saveSpots(ParkingFloor floor, String prefix, int count) {
+        for (int i = 1; i <= count; i++) {
+            parkingSpotRepository.save(ParkingSpot.builder()
+                    .spotNumber(prefix + i).type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
+        }
+    }
 }
@@ -0,0 +1,200 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.dto.ParkingSpotPage;
+import com.yuvraj.parking_lot.dto.ParkingSpotRequest;
+import com.yuvraj.parking_lot.dto.ParkingSpotResponse;
+import com.yuvraj.parking_lot.dto.SpotImportFormat;
+import com.yuvraj.parking_lot.dto.SpotImportResponse;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
+import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import com.yuvraj.parking_lot.repository.VehicleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: imports commit chunk by chunk, and counters only count
+ * committed spots.
+ */
+@SpringBootTest
+class ParkingSpotServiceTest {
+
+    @Autowired
+    private ParkingSpotService parkingSpotService;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingFloorRepository parkingFloorRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private FreeSpotAllocator freeSpotAllocator;
+
+    private Long floorId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder()
+                .name("Import Lot").address("9 Bulk Rd").build());
+        floorId = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(1).parkingLot(lot).build()).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        vehicleRepository.deleteAll();
+        parkingSpotRepository.deleteAll();
+        parkingFloorRepository.deleteAll();
+        parkingLotRepository.deleteAll();
+        freeSpotAllocator.seed();
+        occupancyCounters.reconcile();
+    }
+
+    @Test
+    @DisplayName("Should add spots in bulk and report invalid rows")
+    void testAddSpots() {
+        SpotImportResponse response = parkingSpotService.addSpots(List.of(
+                ParkingSpotRequest.builder().spotNumber("C-1").type(ParkingSpotType.COMPACT).floorId(floorId).build(),
+                ParkingSpotRequest.builder().spotNumber("C-2").type(ParkingSpotType.COMPACT).floorId(floorId).build(),
+                ParkingSpotRequest.builder().spotNumber("").type(ParkingSpotType.COMPACT).floorId(floorId).build(),
+                ParkingSpotRequest.builder().spotNumber("X-1").type(ParkingSpotType.LARGE).floorId(999L).build()));
+
+        assertEquals(2, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(3, response.getErrors().get(0).getRow());
+        assertEquals("spotNumber: Spot number is required", response.getErrors().get(0).getMessage());
+        assertEquals(4, response.getErrors().get(1).getRow());
+        assertEquals("Parking floor not found with id: 999", response.getErrors().get(1).getMessage());
+        assertEquals(2, parkingSpotRepository.findByFloorId(floorId).size());
+        assertEquals(2, occupancyCounters.getFreeCount(ParkingSpotType.COMPACT));
+    }
+
+    @Test
+    @DisplayName("Should stream a CSV import across several chunks")
+    void testImportSpotsCsv() {
+        StringBuilder csv = new StringBuilder("spotNumber,type,floorId\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append("L-").append(i).append(",large,").append(floorId).append('\n');
+        }
+        csv.append("BAD-1,SPACESHIP,").append(floorId).append('\n');
+        csv.append("BAD-2,COMPACT\n");
+        csv.append("BAD-3,COMPACT,abc\n");
+
+        SpotImportResponse response = parkingSpotService.importSpots(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), SpotImportFormat.CSV);
+
+        assertEquals(1200, response.getImported());
+        assertEquals(3, response.getFailed());
+        assertFalse(response.isErrorsTruncated());
+        assertEquals("Unknown spot type: SPACESHIP", response.getErrors().get(0).getMessage());
+        assertEquals(1202, response.getErrors().get(0).getRow());
+        assertEquals("Invalid floor ID: abc", response.getErrors().get(2).getMessage());
+        assertEquals(1200, parkingSpotRepository.countByTypeAndIsOccupiedFalse(ParkingSpotType.LARGE));
+        assertEquals(1200, occupancyCounters.getFreeCount(ParkingSpotType.LARGE));
+    }
+
+    @Test
+    @DisplayName("Should retry a chunk the database rejects and report only the rows it refuses")
+    void testImportSpotsRejectedChunk() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1200; i++) {
+            // Passes validation but overflows the spot_number column
+            String spotNumber = i == 1100 ? "X".repeat(300) : "L-" + i;
+            csv.append(spotNumber).append(",LARGE,").append(floorId).append('\n');
+        }
+
+        SpotImportResponse response = parkingSpotService.importSpots(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), SpotImportFormat.CSV);
+
+        assertEquals(1199, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals(1101, response.getErrors().get(0).getRow());
+        assertTrue(response.getErrors().get(0).getMessage().startsWith("Rejected by the database: "));
+        assertEquals(1199, parkingSpotRepository.countByTypeAndIsOccupiedFalse(ParkingSpotType.LARGE));
+        assertEquals(1199, occupancyCounters.getFreeCount(ParkingSpotType.LARGE));
+        assertEquals(1199, parkingSpotRepository.findByFloorId(floorId).stream()
+                .map(ParkingSpot::getSpotNumber).distinct().count());
+    }
+
+    @Test
+    @DisplayName("Should import newline-delimited JSON spots")
+    void testImportSpotsNdjson() {
+        String ndjson = "{\"spotNumber\":\"E-1\",\"type\":\"ELECTRIC\",\"floorId\":" + floorId + "}\n"
+                + "\n"
+                + "{\"spotNumber\":\"E-2\",\"type\":\"ELECTRIC\"}\n"
+                + "not json\n";
+
+        SpotImportResponse response = parkingSpotService.importSpots(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), SpotImportFormat.NDJSON);
+
+        assertEquals(1, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals("floorId: Floor ID is required", response.getErrors().get(0).getMessage());
+        assertTrue(response.getErrors().get(1).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    @DisplayName("Should page through floor and available spots by keyset cursor")
+    void testKeysetPagination() {
+        List<ParkingSpotRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(ParkingSpotRequest.builder()
+                    .spotNumber("P-" + i).type(ParkingSpotType.COMPACT).floorId(floorId).build());
+        }
+        requests.add(ParkingSpotRequest.builder()
+                .spotNumber("P-L").type(ParkingSpotType.LARGE).floorId(floorId).build());
+        parkingSpotService.addSpots(requests);
+
+        List<String> spotNumbers = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            ParkingSpotPage page = parkingSpotService.getSpotsByFloorId(floorId, cursor, 4);
+            page.getSpots().forEach(spot -> {
+                assertEquals(floorId, spot.getFloorId());
+                assertEquals(1, spot.getFloorNumber());
+                spotNumbers.add(spot.getSpotNumber());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(2, pages);
+        assertEquals(List.of("P-0", "P-1", "P-2", "P-3", "P-4", "P-L"), spotNumbers);
+
+        ParkingSpotPage available = parkingSpotService.getAvailableSpotsByType(ParkingSpotType.COMPACT, null, 5);
+        assertEquals(5, available.getSpots().size());
+        assertNull(available.getNextCursor());
+        assertTrue(available.getSpots().stream().map(ParkingSpotResponse::getType)
+                .allMatch(ParkingSpotType.COMPACT::equals));
+    }
+}
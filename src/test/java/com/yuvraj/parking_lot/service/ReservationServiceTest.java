@@ -0,0 +1,240 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.dto.ReservationRequest;
+import com.yuvraj.parking_lot.dto.ReservationResponse;
+import com.yuvraj.parking_lot.dto.VehicleResponse;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.SpotReservation;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.ReservationStatus;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.exception.ReservationConflictException;
+import com.yuvraj.parking_lot.exception.SpotNotAvailableException;
+import com.yuvraj.parking_lot.occupancy.FreeSpotAllocator;
+import com.yuvraj.parking_lot.occupancy.OccupancyCounters;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
+import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import com.yuvraj.parking_lot.repository.SpotReservationRepository;
+import com.yuvraj.parking_lot.repository.VehicleRepository;
+import com.yuvraj.parking_lot.reservation.HashedTimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ReservationServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ParkingService parkingService;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingFloorRepository parkingFloorRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private SpotReservationRepository spotReservationRepository;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private FreeSpotAllocator freeSpotAllocator;
+
+    @BeforeEach
+    void setUp() {
+        vehicleRepository.deleteAll();
+        spotReservationRepository.deleteAll();
+        parkingSpotRepository.deleteAll();
+        parkingFloorRepository.deleteAll();
+        parkingLotRepository.deleteAll();
+
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder()
+                .name("Reservation Lot").address("9 Hold St").build());
+        ParkingFloor floor = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(1).parkingLot(lot).build());
+        parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("R-1").type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
+        parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("R-2").type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
+
+        occupancyCounters.reconcile();
+        freeSpotAllocator.seed();
+    }
+
+    @Test
+    @DisplayName("Should hold a spot and park the arriving vehicle in it")
+    void testReserveThenPark() {
+        ReservationResponse reservation = reservationService.reserveSpot(request("RES-001").holdMinutes(30).build());
+
+        assertEquals(ReservationStatus.ACTIVE, reservation.getStatus());
+        assertEquals(reservation.getCreatedAt().plusMinutes(30), reservation.getExpiresAt());
+        assertEquals(1L, compactFree());
+
+        VehicleResponse parked = parkingService.parkVehicle(ParkRequest.builder()
+                .licensePlate("RES-001").vehicleType(VehicleType.CAR).reservationId(reservation.getId()).build());
+
+        assertEquals(reservation.getSpotNumber(), parked.getSpotNumber());
+        assertEquals(ReservationStatus.FULFILLED, reservationService.getReservation(reservation.getId()).getStatus());
+        assertEquals(1L, compactFree());
+    }
+
+    @Test
+    @DisplayName("Should reject a second hold, a different plate and a cancelled reservation")
+    void testReservationConflicts() {
+        ReservationResponse reservation = reservationService.reserveSpot(request("RES-002").build());
+
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.reserveSpot(request("RES-002").build()));
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.redeemReservation(reservation.getId(), "SOMEONE-ELSE"));
+
+        assertEquals(ReservationStatus.CANCELLED, reservationService.cancelReservation(reservation.getId()).getStatus());
+        assertEquals(2L, compactFree());
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.redeemReservation(reservation.getId(), "RES-002"));
+    }
+
+    @Test
+    // Every hold must commit for the database to arbitrate, so this test commits and cleans up
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should let only one of many concurrent holds for a plate succeed")
+    void testConcurrentHoldsForOnePlate() throws Exception {
+        ParkingFloor floor = parkingFloorRepository.findAll().get(0);
+        for (int i = 3; i <= THREADS; i++) {
+            parkingSpotRepository.save(ParkingSpot.builder()
+                    .spotNumber("R-" + i).type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
+        }
+        occupancyCounters.reconcile();
+        freeSpotAllocator.seed();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> holds = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                holds.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservationService.reserveSpot(request("RES-RACE").build());
+                        return true;
+                    } catch (ReservationConflictException ex) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> hold : holds) {
+                if (hold.get(30, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            assertEquals(1, succeeded);
+            assertEquals(1, spotReservationRepository.count());
+            assertEquals(THREADS - 1L, compactFree());
+
+            // Once the hold ends the plate may reserve again
+            reservationService.cancelReservation(spotReservationRepository.findAll().get(0).getId());
+            assertEquals(ReservationStatus.ACTIVE, reservationService.reserveSpot(request("RES-RACE").build()).getStatus());
+        } finally {
+            executor.shutdownNow();
+            spotReservationRepository.deleteAll();
+            parkingSpotRepository.deleteAll();
+            parkingFloorRepository.deleteAll();
+            parkingLotRepository.deleteAll();
+            occupancyCounters.reconcile();
+            freeSpotAllocator.seed();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count held spots as unavailable to other vehicles")
+    void testHeldSpotsAreNotAllocated() {
+        reservationService.reserveSpot(request("RES-003").build());
+        reservationService.reserveSpot(request("RES-004").build());
+
+        assertThrows(SpotNotAvailableException.class, () -> parkingService.parkVehicle(ParkRequest.builder()
+                .licensePlate("WALK-IN").vehicleType(VehicleType.CAR).spotType(ParkingSpotType.COMPACT).build()));
+    }
+
+    @Test
+    @DisplayName("Should expire overdue holds and leave holds that are not yet due")
+    void testExpireReservations() {
+        ReservationResponse overdue = reservationService.reserveSpot(request("RES-005").build());
+        ReservationResponse pending = reservationService.reserveSpot(request("RES-006").build());
+        SpotReservation overdueRow = spotReservationRepository.findById(overdue.getId()).orElseThrow();
+        overdueRow.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        assertEquals(1, reservationService.expireReservations(List.of(overdue.getId(), pending.getId())));
+
+        assertEquals(ReservationStatus.EXPIRED, reservationService.getReservation(overdue.getId()).getStatus());
+        assertEquals(ReservationStatus.ACTIVE, reservationService.getReservation(pending.getId()).getStatus());
+        assertEquals(1L, compactFree());
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.redeemReservation(overdue.getId(), "RES-005"));
+    }
+
+    @Test
+    @DisplayName("Timing wheel should fire due keys across rotations and skip cancelled ones")
+    void testHashedTimingWheel() {
+        HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(1000, 8, 0);
+        wheel.schedule(1L, 2_500);
+        wheel.schedule(2L, 10_000);  // Shares bucket 2 with key 1, one rotation later
+        wheel.schedule(3L, 3_000);
+        wheel.schedule(4L, -5_000);  // Already overdue
+        assertTrue(wheel.cancel(3L));
+
+        assertEquals(List.of(4L), wheel.advance(1_000));
+        assertEquals(List.of(), wheel.advance(2_000));
+        assertEquals(List.of(1L), wheel.advance(3_000));
+        assertEquals(1, wheel.size());
+        // A long pause visits each bucket once and still fires everything due
+        assertEquals(List.of(2L), wheel.advance(60_000));
+        assertEquals(0, wheel.size());
+    }
+
+    private ReservationRequest.ReservationRequestBuilder request(String licensePlate) {
+        return ReservationRequest.builder()
+                .licensePlate(licensePlate)
+                .vehicleType(VehicleType.CAR)
+                .spotType(ParkingSpotType.COMPACT);
+    }
+
+    private long compactFree() {
+        return parkingService.getAvailableSpots().getAvailableSpots().get(ParkingSpotType.COMPACT);
+    }
+}
@@ -0,0 +1,156 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.dto.ParkRequest;
+import com.yuvraj.parking_lot.entity.ParkingFloor;
+import com.yuvraj.parking_lot.entity.ParkingLot;
+import com.yuvraj.parking_lot.entity.ParkingSpot;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.repository.ParkingFloorRepository;
+import com.yuvraj.parking_lot.repository.ParkingLotRepository;
+import com.yuvraj.parking_lot.repository.ParkingSpotRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the partitioned history DDL and the legacy vehicle-table migration
+ * against a real PostgreSQL, which H2 cannot stand in for. Skipped when Docker
+ * is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@DirtiesContext
+class SessionHistoryPartitioningTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ParkingService parkingService;
+
+    @Autowired
+    private ParkingLotRepository parkingLotRepository;
+
+    @Autowired
+    private ParkingFloorRepository parkingFloorRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        // As in production: update the existing schema, then run schema-postgresql.sql
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("parking.history.partitioned", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.hbm2ddl.schema_filter_provider",
+                () -> "com.yuvraj.parking_lot.history.SessionHistorySchemaFilterProvider");
+        registry.add("parking.journal.enabled", () -> "false");
+    }
+
+    /**
+     * A vehicle table from before session history, where exited vehicles kept
+     * their row with an exit time. Runs once the container is up and before
+     * the application starts.
+     */
+    @BeforeAll
+    static void createLegacySchema() {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        legacy.execute("""
+                CREATE TABLE vehicle (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    license_plate varchar(255) NOT NULL UNIQUE,
+                    vehicle_type varchar(255) NOT NULL,
+                    entry_time timestamp(6),
+                    exit_time timestamp(6),
+                    parking_spot_id bigint)""");
+        legacy.update("""
+                INSERT INTO vehicle (license_plate, vehicle_type, entry_time, exit_time) VALUES
+                    ('LEGACY-EXITED', 'CAR', now() - interval '2 hours', now() - interval '1 hour'),
+                    ('LEGACY-PARKED', 'VAN', now() - interval '1 hour', NULL)""");
+    }
+
+    @Test
+    @DisplayName("Should create the default and upcoming monthly history partitions")
+    void testPartitions() {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'parking_session_history'::regclass ORDER BY c.relname""", String.class);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i <= 2; i++) {
+            expected.add(partitionOf(YearMonth.now().plusMonths(i)));
+        }
+        expected.add("parking_session_history_default");
+        assertEquals(expected.stream().sorted().toList(), partitions);
+    }
+
+    @Test
+    @DisplayName("Should move legacy completed sessions into history and drop vehicle.exit_time")
+    void testLegacyMigration() {
+        assertEquals(List.of("LEGACY-EXITED"), jdbcTemplate.queryForList(
+                "SELECT license_plate FROM parking_session_history WHERE license_plate LIKE 'LEGACY-%'", String.class));
+        assertEquals(List.of("LEGACY-PARKED"), jdbcTemplate.queryForList(
+                "SELECT license_plate FROM vehicle WHERE license_plate LIKE 'LEGACY-%'", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_name = 'vehicle' AND column_name = 'exit_time'""", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should archive an exit into the current month's partition with its fee")
+    void testExitLandsInPartition() {
+        ParkingLot lot = parkingLotRepository.save(ParkingLot.builder()
+                .name("Partition Lot").address("5 Range St").build());
+        ParkingFloor floor = parkingFloorRepository.save(ParkingFloor.builder()
+                .floorNumber(1).parkingLot(lot).build());
+        parkingSpotRepository.save(ParkingSpot.builder()
+                .spotNumber("P-1").type(ParkingSpotType.COMPACT).isOccupied(false).floor(floor).build());
+
+        parkingService.parkVehicle(ParkRequest.builder()
+                .licensePlate("PG-001")
+                .vehicleType(VehicleType.CAR)
+                .spotType(ParkingSpotType.COMPACT)
+                .parkingLotId(lot.getId())
+                .build());
+        parkingService.exitVehicle("PG-001");
+
+        assertEquals(partitionOf(YearMonth.now()), jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM parking_session_history WHERE license_plate = 'PG-001'",
+                String.class));
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT fee FROM parking_session_history WHERE license_plate = 'PG-001'", Object.class));
+    }
+
+    private static String partitionOf(YearMonth month) {
+        return "parking_session_history_y%dm%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+}
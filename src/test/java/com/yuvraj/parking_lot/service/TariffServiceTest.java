@@ -0,0 +1,190 @@
+package com.yuvraj.parking_lot.service;
+
+import com.yuvraj.parking_lot.dto.RerateResponse;
+import com.yuvraj.parking_lot.entity.ParkingSessionHistory;
+import com.yuvraj.parking_lot.entity.enums.ParkingSpotType;
+import com.yuvraj.parking_lot.entity.enums.VehicleType;
+import com.yuvraj.parking_lot.exception.RerateInProgressException;
+import com.yuvraj.parking_lot.repository.ParkingSessionHistoryRepository;
+import com.yuvraj.parking_lot.service.impl.TariffServiceImpl;
+import com.yuvraj.parking_lot.tariff.TariffEngine;
+import com.yuvraj.parking_lot.tariff.TariffProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: re-rating commits from its own worker threads.
+ */
+@SpringBootTest
+class TariffServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2001, 3, 5, 0, 0);
+
+    private final TariffEngine tariffEngine = new TariffEngine(new TariffProperties());
+
+    @Autowired
+    private ParkingSessionHistoryRepository parkingSessionHistoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<ParkingSessionHistory> sessions = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        parkingSessionHistoryRepository.deleteAll(sessions);
+    }
+
+    @Test
+    @DisplayName("Should charge the hourly rate outside any band")
+    void testHourlyRate() {
+        assertEquals(new BigDecimal("4.00"), price(ParkingSpotType.COMPACT, VehicleType.CAR, 11, 0, 13, 0));
+        assertEquals(new BigDecimal("6.00"), price(ParkingSpotType.LARGE, VehicleType.VAN, 11, 0, 13, 0));
+    }
+
+    @Test
+    @DisplayName("Should apply time-of-day bands and vehicle multipliers")
+    void testBandsAndMultipliers() {
+        assertEquals(new BigDecimal("6.00"), price(ParkingSpotType.COMPACT, VehicleType.CAR, 7, 0, 9, 0));
+        // Night band across midnight
+        assertEquals(new BigDecimal("2.00"), price(ParkingSpotType.COMPACT, VehicleType.CAR, 23, 0, 25, 0));
+        assertEquals(new BigDecimal("6.00"), price(ParkingSpotType.COMPACT, VehicleType.TRUCK, 11, 0, 13, 0));
+        assertEquals(new BigDecimal("4.00"), price(ParkingSpotType.COMPACT, null, 11, 0, 13, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject a band that ends where it starts")
+    void testEmptyBand() {
+        TariffProperties properties = new TariffProperties();
+        properties.getBands().add(new TariffProperties.Band("12:00", "12:00", new BigDecimal("2")));
+
+        assertThrows(IllegalStateException.class, () -> new TariffEngine(properties));
+    }
+
+    @Test
+    @DisplayName("Should charge per started minute after the grace period")
+    void testGraceAndStartedMinutes() {
+        assertEquals(new BigDecimal("0.00"), price(ParkingSpotType.COMPACT, VehicleType.CAR, 11, 0, 11, 9));
+        assertEquals(new BigDecimal("0.37"), price(ParkingSpotType.COMPACT, VehicleType.CAR, 11, 0, 11, 11));
+        assertEquals(new BigDecimal("1.03"), tariffEngine.price(ParkingSpotType.COMPACT, VehicleType.CAR,
+                DAY.withHour(11), DAY.withHour(11).plusMinutes(30).plusSeconds(20)));
+    }
+
+    @Test
+    @DisplayName("Should cap each calendar day")
+    void testDailyCap() {
+        // 29.00 uncapped
+        assertEquals(new BigDecimal("20.00"), price(ParkingSpotType.COMPACT, VehicleType.CAR, 8, 0, 20, 0));
+        // 35.00 capped to 20.00, a full day at the cap, then 17.00 up to 10:00
+        assertEquals(new BigDecimal("57.00"), price(ParkingSpotType.COMPACT, VehicleType.CAR, 8, 0, 48 + 10, 0));
+        assertEquals(new BigDecimal("30.00"), price(ParkingSpotType.COMPACT, VehicleType.TRUCK, 8, 0, 20, 0));
+    }
+
+    @Test
+    @DisplayName("Should re-rate session history in parallel chunks and write only changed fees")
+    void testRerate() {
+        save(VehicleType.CAR, ParkingSpotType.COMPACT, 11, 13, null);
+        save(VehicleType.CAR, ParkingSpotType.COMPACT, 7, 9, new BigDecimal("6.00"));
+        save(VehicleType.TRUCK, ParkingSpotType.COMPACT, 11, 13, new BigDecimal("1.00"));
+        save(VehicleType.VAN, ParkingSpotType.LARGE, 8, 20, new BigDecimal("99.00"));
+        save(VehicleType.MOTORBIKE, null, 11, 13, null);
+        save(VehicleType.CAR, null, 11, 13, new BigDecimal("1.00"));
+
+        TariffProperties properties = new TariffProperties();
+        properties.setRerateChunkSize(2);
+        properties.setRerateThreads(3);
+        TariffService tariffService = new TariffServiceImpl(jdbcTemplate, transactionManager, tariffEngine, properties);
+
+        RerateResponse response = tariffService.rerate(DAY, DAY.plusDays(1));
+
+        assertEquals(6, response.getSessions());
+        assertEquals(4, response.getChanged());
+        assertEquals(new BigDecimal("107.00"), response.getTotalBefore());
+        assertEquals(new BigDecimal("46.00"), response.getTotalAfter());
+
+        List<BigDecimal> fees = sessions.stream()
+                .map(session -> parkingSessionHistoryRepository.findById(session.getId()).orElseThrow().getFee())
+                .toList();
+        // Sessions without a spot have no fee, as when they exit
+        assertEquals(Arrays.asList(new BigDecimal("4.00"), new BigDecimal("6.00"), new BigDecimal("6.00"),
+                new BigDecimal("30.00"), null, null), fees);
+
+        assertEquals(0, tariffService.rerate(DAY, DAY.plusDays(1)).getChanged());
+        assertEquals(0, tariffService.rerate(DAY.plusDays(1), DAY.plusDays(2)).getSessions());
+    }
+
+    @Test
+    @DisplayName("Should refuse a re-rate while another is running")
+    void testConcurrentRerateRefused() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JdbcTemplate blockingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> T queryForObject(String sql, RowMapper<T> rowMapper, Object... args) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.queryForObject(sql, rowMapper, args);
+            }
+        };
+        TariffService tariffService = new TariffServiceImpl(blockingTemplate, transactionManager, tariffEngine,
+                new TariffProperties());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<RerateResponse> first = executor.submit(() -> tariffService.rerate(DAY, DAY.plusDays(1)));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertThrows(RerateInProgressException.class, () -> tariffService.rerate(DAY, DAY.plusDays(1)));
+
+            release.countDown();
+            assertEquals(0, first.get(10, TimeUnit.SECONDS).getSessions());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private BigDecimal price(ParkingSpotType spotType, VehicleType vehicleType,
+                             int entryHour, int entryMinute, int exitHour, int exitMinute) {
+        return tariffEngine.price(spotType, vehicleType,
+                DAY.plusHours(entryHour).plusMinutes(entryMinute), DAY.plusHours(exitHour).plusMinutes(exitMinute));
+    }
+
+    private void save(VehicleType vehicleType, ParkingSpotType spotType, int entryHour, int exitHour, BigDecimal fee) {
+        sessions.add(parkingSessionHistoryRepository.save(ParkingSessionHistory.builder()
+                .sessionId((long) sessions.size())
+                .licensePlate("TARIFF-" + sessions.size())
+                .vehicleType(vehicleType)
+                .entryTime(DAY.plusHours(entryHour))
+                .exitTime(DAY.plusHours(exitHour))
+                .spotType(spotType)
+                .fee(fee)
+                .build()));
+    }
+}